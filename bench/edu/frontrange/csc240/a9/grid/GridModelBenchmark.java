@@ -0,0 +1,115 @@
+
+package edu.frontrange.csc240.a9.grid;
+
+import edu.frontrange.csc240.a9.render.CountingTarget;
+import edu.frontrange.csc240.a9.render.RasterTarget;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the model of the grid, without a display: the making of the layout
+ * of the lines, and the drawing of the grid (with some cells filled) into a sink
+ * that only counts what is drawn, and into an array of pixels.
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GridModelBenchmark
+{
+/**
+ * The size of the drawing (pixels) each way.
+ */
+private static final double SIZE = 1000.0;
+
+/**
+ * The count of cells each way.
+ */
+@Param({ "10", "1000", "20000" })
+public int cellCount;
+
+/**
+ * The sink that counts what is drawn.
+ */
+private final CountingTarget counter = new CountingTarget();
+
+/**
+ * The model of the grid.
+ */
+private GridModel model;
+
+/**
+ * The array of pixels into which the grid is drawn.
+ */
+private final RasterTarget raster = new RasterTarget(GridRasterizer.BACKGROUND);
+
+/**
+ * Create the model, and fill every seventh cell along the diagonals.
+ */
+@Setup
+public void setUp()
+{
+	model = new GridModel();
+	model.setCellCount(cellCount);
+	CellLayer filled = model.createLayer(CellLayer.BOOLEAN, false);
+	for( int i = 0; i < cellCount; i += 7 )
+	{
+		filled.setBoolean(i, i, true);
+		filled.setBoolean(i, cellCount - 1 - i, true);
+	}
+	model.setFilled(filled);
+	model.layout(SIZE, SIZE);
+}
+
+/**
+ * Draw the grid into the sink that counts what is drawn.
+ *
+ * @return				the count of primitives drawn
+ */
+@Benchmark
+public long drawCounting()
+{
+	counter.reset();
+	model.draw(counter, SIZE, SIZE);
+	return counter.getPrimitives();
+}
+
+/**
+ * Draw the grid into the array of pixels.
+ *
+ * @return				the pixels
+ */
+@Benchmark
+public int[] drawRaster()
+{
+	model.draw(raster, SIZE, SIZE);
+	return raster.getPixels();
+}
+
+/**
+ * Make the layout of the lines again (as after any zoom or pan).
+ *
+ * @return				the layout
+ */
+@Benchmark
+public GridLayout layout()
+{
+	model.resetView();
+	return model.getLayout();
+}
+}
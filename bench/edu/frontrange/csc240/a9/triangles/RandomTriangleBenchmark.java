@@ -0,0 +1,101 @@
+
+package edu.frontrange.csc240.a9.triangles;
+
+import java.util.concurrent.TimeUnit;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the making of one random triangle: the whole construction (with
+ * its loop rejecting triangles that are too small), alone or from a generator used
+ * for many triangles, for areas of several aspect ratios, and the choice of its
+ * color on its own.
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RandomTriangleBenchmark
+{
+/**
+ * The background color to be avoided.
+ */
+private static final Color BACKGROUND = Color.WHITE;
+
+/**
+ * The size of the area, as width x height (pixels). The triangles are made in
+ * proportion to the area, so that the same share of them (about eleven in twelve)
+ * is rejected as too small whatever its shape.
+ */
+@Param({ "400x400", "1600x400", "400x1600", "100x2000" })
+public String area;
+
+/**
+ * The height of the area.
+ */
+private double height;
+
+/**
+ * A generator, whose colors are chosen for each operation.
+ */
+private TriangleGenerator generator;
+
+/**
+ * The width of the area.
+ */
+private double width;
+
+/**
+ * Set up the area, and a generator for the choice of colors.
+ */
+@Setup
+public void setUp()
+{
+	String[] sides = area.split("x");
+	width = Double.parseDouble(sides[0]);
+	height = Double.parseDouble(sides[1]);
+	generator = new TriangleGenerator(width, height, BACKGROUND);
+}
+
+/**
+ * @return				a new random triangle
+ */
+@Benchmark
+public RandomTriangle construct()
+{
+	return new RandomTriangle(width, height, BACKGROUND);
+}
+
+/**
+ * @return				a new random triangle from a generator used for many
+ */
+@Benchmark
+public RandomTriangle generate()
+{
+	return generator.next();
+}
+
+/**
+ * @return				a new random color, away from the background
+ */
+@Benchmark
+public Color randomColor()
+{
+	return generator.randomColor();
+}
+}
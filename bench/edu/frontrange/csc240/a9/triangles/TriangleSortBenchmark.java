@@ -0,0 +1,101 @@
+
+package edu.frontrange.csc240.a9.triangles;
+
+import java.util.concurrent.TimeUnit;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the sorting of a set of triangles from largest to smallest, as the
+ * model does, on its own. The colors do not affect the sorting, and so are not
+ * limited.
+ * <p>
+ * Each sort is of a new unsorted copy of the triangles, made before the sort (and
+ * not measured). As JMH then times each sort on its own, the smallest set sorted
+ * is large enough for the sort to take much longer than the timing. </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TriangleSortBenchmark
+{
+/**
+ * The size of the area (pixels) each way.
+ */
+private static final double SIZE = 800.0;
+
+/**
+ * The number of triangles sorted.
+ */
+@Param({ "10000", "1000000" })
+public int count;
+
+/**
+ * Triangles, in the order in which they were made.
+ */
+private TriangleBatch triangles;
+
+/**
+ * Make the triangles.
+ */
+@Setup(Level.Trial)
+public void setUp()
+{
+	triangles = new TriangleBatch(count);
+	new TriangleGenerator(SIZE, SIZE, Color.WHITE).generate(triangles, count);
+}
+
+/**
+ * Sort the triangles from largest to smallest, as the model does.
+ *
+ * @param unsorted		an unsorted copy of the triangles
+ * @return				the sorted triangles
+ */
+@Benchmark
+public TriangleBatch sort(Unsorted unsorted)
+{
+	unsorted.batch.sort();
+	return unsorted.batch;
+}
+
+/**
+ * An unsorted copy of the triangles, made again before each sort.
+ */
+@State(Scope.Thread)
+public static class Unsorted
+{
+/**
+ * The unsorted triangles to be sorted by the next operation.
+ */
+private TriangleBatch batch;
+
+/**
+ * Make a new unsorted copy of the triangles for the next sort, so that the
+ * copying is not measured.
+ *
+ * @param benchmark		the benchmark, holding the triangles
+ */
+@Setup(Level.Invocation)
+public void unsort(TriangleSortBenchmark benchmark)
+{
+	batch = new TriangleBatch(benchmark.triangles);
+}
+}
+}
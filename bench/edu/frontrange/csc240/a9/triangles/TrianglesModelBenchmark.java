@@ -0,0 +1,115 @@
+
+package edu.frontrange.csc240.a9.triangles;
+
+import edu.frontrange.csc240.a9.render.CountingTarget;
+import edu.frontrange.csc240.a9.render.RasterTarget;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the model of triangles: the creation of a whole set of triangles
+ * (generation and sorting together), and the drawing of the set into a sink that
+ * only counts what is drawn and into an array of pixels. Each is measured with the
+ * colors not limited, and limited to palettes of a few colors (whose runs of the
+ * same color are drawn together). The sorting on its own is measured by
+ * TriangleSortBenchmark.
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TrianglesModelBenchmark
+{
+/**
+ * The size of the area (pixels) each way.
+ */
+private static final double SIZE = 800.0;
+
+/**
+ * The number of triangles in the model.
+ */
+@Param({ "10", "10000", "1000000" })
+public int count;
+
+/**
+ * The number of colors to which the colors are limited (zero if not limited).
+ */
+@Param({ "0", "4", "16" })
+public int palette;
+
+/**
+ * The model, holding a set of triangles.
+ */
+private TrianglesModel model;
+
+/**
+ * The array of pixels into which the model is drawn.
+ */
+private RasterTarget raster;
+
+/**
+ * Create the model and its triangles.
+ */
+@Setup(Level.Trial)
+public void setUp()
+{
+	model = new TrianglesModel(count, Color.WHITE);
+	model.setPaletteSize(palette);
+	model.createTriangles(SIZE, SIZE);
+	raster = new RasterTarget(0xFFFFFFFF);
+}
+
+/**
+ * Create a whole new set of triangles in the model.
+ *
+ * @return				the model
+ */
+@Benchmark
+public TrianglesModel createTriangles()
+{
+	model.createTriangles(SIZE, SIZE);
+	return model;
+}
+
+/**
+ * Draw the model into a sink that only counts the operations.
+ *
+ * @return				the count of operations drawn
+ */
+@Benchmark
+public long draw()
+{
+	CountingTarget target = new CountingTarget();
+	model.draw(target, SIZE, SIZE);
+	return target.getOperations();
+}
+
+/**
+ * Draw the model into an array of pixels.
+ *
+ * @return				the pixels
+ */
+@Benchmark
+public int[] drawRaster()
+{
+	model.draw(raster, SIZE, SIZE);
+	return raster.getPixels();
+}
+}
@@ -0,0 +1,446 @@
+
+package edu.frontrange.csc240.a9.grid;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * One layer of state for the cells of a square grid, held in primitive words
+ * rather than as objects. Each cell has a value of a fixed number of bits: one bit
+ * (for a true/false state), eight bits (a byte), or thirty-two bits (an int). The
+ * values are packed into 64-bit words, so that no value is ever split between two
+ * words, and any value can be found or changed in constant time.
+ * <p>
+ * The words may be held on the heap (in an array of long), or, for grids beyond the
+ * size that the heap can comfortably hold, off the heap in direct byte buffers.
+ * </p>
+ * <p>
+ * The cells are identified by row and column, each from zero to one less than the
+ * cell count. Byte values are returned unsigned (0 to 255). </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
+ */
+public class CellLayer
+{
+/**
+ * Bits per value of a layer of true/false values.
+ */
+public static final int BOOLEAN = 1;
+
+/**
+ * Bits per value of a layer of byte values.
+ */
+public static final int BYTE = 8;
+
+/**
+ * Bits per value of a layer of int values.
+ */
+public static final int INT = 32;
+
+/**
+ * Bits in each word of storage.
+ */
+private static final int WORD_BITS = Long.SIZE;
+
+/**
+ * The number of bits for each value (one of BOOLEAN, BYTE or INT).
+ */
+private final int bits;
+
+/**
+ * The count of cells each way in the grid.
+ */
+private final int cellCount;
+
+/**
+ * Mask for the bits of one value.
+ */
+private final long mask;
+
+/**
+ * The storage holding the words.
+ */
+private final Words memory;
+
+/**
+ * Count of the changes made to the layer, so that a user of the layer can tell
+ * whether it has changed.
+ */
+private long modifications;
+
+/**
+ * Constructor: a layer with every value zero (false).
+ *
+ * @param cellCount		the count of cells each way in the grid
+ * @param bits			bits per value: BOOLEAN, BYTE or INT
+ * @param offHeap		true if the values are to be held off the heap
+ */
+public CellLayer(int cellCount, int bits, boolean offHeap)
+{
+	if( cellCount < 1 )
+		throw new IllegalArgumentException("Cell count must be positive");
+	if( bits != BOOLEAN && bits != BYTE && bits != INT )
+		throw new IllegalArgumentException("Bits per value must be 1, 8 or 32");
+	this.cellCount = cellCount;
+	this.bits = bits;
+	mask = (1L << bits) - 1L;
+
+	/* The number of words needed, rounded up. */
+	long cells = (long) cellCount * cellCount;
+	long words = (cells * bits + WORD_BITS - 1) / WORD_BITS;
+	memory = offHeap ? new DirectWords(words) : new HeapWords(words);
+}
+
+/**
+ * Set every value to zero (false).
+ */
+public void clear()
+{
+	for( long w = 0; w != memory.size(); ++w ) memory.set(w, 0L);
+	++modifications;
+}
+
+/**
+ * Set every value in a column to the given value.
+ *
+ * @param column		the column
+ * @param value			the value
+ */
+public void fillColumn(int column, int value)
+{
+	checkIndex(column);
+	for( int row = 0; row != cellCount; ++row ) put(index(row, column), value);
+	++modifications;
+}
+
+/**
+ * Set every value in a row to the given value. Whole words are written at once.
+ *
+ * @param row			the row
+ * @param value			the value
+ */
+public void fillRow(int row, int value)
+{
+	checkIndex(row);
+	long start = index(row, 0);
+	long end = start + cellCount;
+	int perWord = WORD_BITS / bits;
+
+	/* The values before the first whole word, one at a time. */
+	long cell = start;
+	while( cell != end && cell % perWord != 0 ) put(cell++, value);
+
+	/* The whole words, each holding the value repeated in every position. */
+	long pattern = 0L;
+	for( int i = 0; i != perWord; ++i ) pattern |= (value & mask) << (i * bits);
+	for( ; end - cell >= perWord; cell += perWord )
+		memory.set(cell / perWord, pattern);
+
+	/* The values after the last whole word. */
+	while( cell != end ) put(cell++, value);
+	++modifications;
+}
+
+/**
+ * Get the value of a cell.
+ *
+ * @param row			the row of the cell
+ * @param column		the column of the cell
+ * @return				the value of the cell
+ */
+public int get(int row, int column)
+{
+	checkIndex(row);
+	checkIndex(column);
+	return fetch(index(row, column));
+}
+
+/**
+ * @return				bits per value: BOOLEAN, BYTE or INT
+ */
+public int getBits()
+{
+	return bits;
+}
+
+/**
+ * Get the value of a cell as true (not zero) or false (zero).
+ *
+ * @param row			the row of the cell
+ * @param column		the column of the cell
+ * @return				true if the value of the cell is not zero
+ */
+public boolean getBoolean(int row, int column)
+{
+	return get(row, column) != 0;
+}
+
+/**
+ * @return				the count of cells each way in the grid
+ */
+public int getCellCount()
+{
+	return cellCount;
+}
+
+/**
+ * @return				count of the changes made to this layer
+ */
+public long getModifications()
+{
+	return modifications;
+}
+
+/**
+ * @return				true if the values are held off the heap
+ */
+public boolean isOffHeap()
+{
+	return memory instanceof DirectWords;
+}
+
+/**
+ * Find the first cell in a row, within a range of columns, that has a value that is
+ * not zero. Words that are entirely zero are passed over without looking at their
+ * values one by one.
+ *
+ * @param row			the row to search
+ * @param fromColumn	the first column to search
+ * @param toColumn		one beyond the last column to search
+ * @return				the column of the cell found, or -1 if there is none
+ */
+public int nextNonZero(int row, int fromColumn, int toColumn)
+{
+	checkIndex(row);
+	long base = index(row, 0);
+	long cell = base + Math.max(0, fromColumn);
+	long end = base + Math.min(cellCount, toColumn);
+	int perWord = WORD_BITS / bits;
+	while( cell < end )
+	{
+		/* The remaining values in the word holding this cell. */
+		long word = memory.get(cell / perWord) >>> (cell % perWord * bits);
+		if( word == 0L )
+		{
+			/* Go straight to the start of the next word. */
+			cell = (cell / perWord + 1) * perWord;
+			continue;
+		}
+		/* The first value that is not zero holds the lowest bit that is set. */
+		cell += Long.numberOfTrailingZeros(word) / bits;
+		return cell < end ? (int) (cell - base) : -1;
+	}
+	return -1;
+}
+
+/**
+ * Set the value of a cell. Only the low-order bits of the value that fit in the
+ * layer are kept.
+ *
+ * @param row			the row of the cell
+ * @param column		the column of the cell
+ * @param value			the value
+ */
+public void set(int row, int column, int value)
+{
+	checkIndex(row);
+	checkIndex(column);
+	put(index(row, column), value);
+	++modifications;
+}
+
+/**
+ * Set the value of a cell to one (true) or zero (false).
+ *
+ * @param row			the row of the cell
+ * @param column		the column of the cell
+ * @param value			the value
+ */
+public void setBoolean(int row, int column, boolean value)
+{
+	set(row, column, value ? 1 : 0);
+}
+
+/**
+ * Check that a row or column is within the grid.
+ *
+ * @param index			the row or column
+ */
+private void checkIndex(int index)
+{
+	if( index < 0 || index >= cellCount )
+		throw new IndexOutOfBoundsException("Row or column " + index +
+				" is outside a grid of " + cellCount + " cells");
+}
+
+/**
+ * Get the value of the cell with the given index.
+ *
+ * @param cell			the index of the cell
+ * @return				the value
+ */
+private int fetch(long cell)
+{
+	int perWord = WORD_BITS / bits;
+	long word = memory.get(cell / perWord);
+	return (int) ((word >>> (cell % perWord * bits)) & mask);
+}
+
+/**
+ * The index of a cell, counting along the rows.
+ *
+ * @param row			the row of the cell
+ * @param column		the column of the cell
+ * @return				the index of the cell
+ */
+private long index(int row, int column)
+{
+	return (long) row * cellCount + column;
+}
+
+/**
+ * Set the value of the cell with the given index.
+ *
+ * @param cell			the index of the cell
+ * @param value			the value
+ */
+private void put(long cell, int value)
+{
+	int perWord = WORD_BITS / bits;
+	long w = cell / perWord;
+	int shift = (int) (cell % perWord * bits);
+	long word = memory.get(w) & ~(mask << shift);
+	memory.set(w, word | ((value & mask) << shift));
+}
+
+/**
+ * The storage of the words of a layer.
+ */
+private interface Words
+{
+/**
+ * @param index			index of the word
+ * @return				the word
+ */
+long get(long index);
+
+/**
+ * @param index			index of the word
+ * @param word			the new value of the word
+ */
+void set(long index, long word);
+
+/**
+ * @return				the number of words
+ */
+long size();
+}
+
+/**
+ * Words held in an array on the heap.
+ */
+private static final class HeapWords implements Words
+{
+/**
+ * The words.
+ */
+private final long[] words;
+
+/**
+ * Constructor.
+ *
+ * @param size			the number of words
+ */
+HeapWords(long size)
+{
+	if( size > Integer.MAX_VALUE - 8 )
+		throw new IllegalArgumentException(
+				"Grid too large for the heap: hold the cells off the heap");
+	words = new long[(int) size];
+}
+
+@Override
+public long get(long index)
+{
+	return words[(int) index];
+}
+
+@Override
+public void set(long index, long word)
+{
+	words[(int) index] = word;
+}
+
+@Override
+public long size()
+{
+	return words.length;
+}
+}
+
+/**
+ * Words held in direct byte buffers, off the heap. As one buffer is limited in
+ * size, the words are spread over as many buffers as needed.
+ */
+private static final class DirectWords implements Words
+{
+/**
+ * Words in each buffer (a power of two: 2^27 words, which is 1 GiB).
+ */
+private static final int CHUNK_SHIFT = 27;
+
+/**
+ * Mask for the index of a word within its buffer.
+ */
+private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1L;
+
+/**
+ * The buffers.
+ */
+private final ByteBuffer[] chunks;
+
+/**
+ * The number of words.
+ */
+private final long size;
+
+/**
+ * Constructor.
+ *
+ * @param size			the number of words
+ */
+DirectWords(long size)
+{
+	this.size = size;
+	int count = (int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+	chunks = new ByteBuffer[count];
+	for( int i = 0; i != count; ++i )
+	{
+		long words = Math.min(size - ((long) i << CHUNK_SHIFT), 1L << CHUNK_SHIFT);
+		chunks[i] = ByteBuffer.allocateDirect((int) (words * Long.BYTES))
+				.order(ByteOrder.nativeOrder());
+	}
+}
+
+@Override
+public long get(long index)
+{
+	return chunks[(int) (index >>> CHUNK_SHIFT)]
+			.getLong((int) (index & CHUNK_MASK) * Long.BYTES);
+}
+
+@Override
+public void set(long index, long word)
+{
+	chunks[(int) (index >>> CHUNK_SHIFT)]
+			.putLong((int) (index & CHUNK_MASK) * Long.BYTES, word);
+}
+
+@Override
+public long size()
+{
+	return size;
+}
+}
+}
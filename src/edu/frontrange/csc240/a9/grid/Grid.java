@@ -1,30 +1,75 @@
 
 package edu.frontrange.csc240.a9.grid;
 
+import java.util.Arrays;
 import javafx.application.Application;
+import software.haddon.util.FXStartup;
 
 /**
  * Main program for showing a window, with a grid inside. The size of the grid
  * is determined by a count of the cells (the same in each direction) plus a(n)
  * (initial) size of the cells  The spacing between the lines (but not the number
  * of cells) changes with resizing the window.
+ * <p>
+ * Alternatively, with the option {@code --export}, no window is shown: an image of
+ * the grid is written to a PNG file, and the program ends. </p>
+ * <p>
+ * The classes of the dialogs asking for the values are loaded on another thread
+ * while JavaFX starts, so that the first dialog is shown sooner. With the option
+ * {@code --timings}, the times taken to start, and to show the first window, are
+ * written to the standard error. </p>
  *
  * @author		Dr. Bruce K. Haddon, Instructor
- * @version		3.0, 2020-08-22, CSC-240 Assignment 9
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
  */
 public class Grid
 {
+/**
+ * The option requesting the export of an image, rather than showing a window.
+ */
+private static final String EXPORT = "--export";
+
+/**
+ * The option requesting the report of the times taken to start.
+ */
+private static final String TIMINGS = "--timings";
+
 /**
  * The main entry point.
  * <p>
  * Execute: </p>
- * <pre>java edu.frontrange.csc240.a9.grid.Grid</pre>
+ * <pre>java edu.frontrange.csc240.a9.grid.Grid [--renderer=pixels] [--timings]
+ *		[cellCount [cellSize]]</pre>
+ * <p>
+ * where {@code --renderer=pixels} renders the grid with the parallel software
+ * rasterizer rather than on a Canvas, and {@code --timings} reports the times
+ * taken to start; </p>
+ * <p>
+ * or, to write an image without a display: </p>
+ * <pre>java edu.frontrange.csc240.a9.grid.Grid --export file.png cellCount cellSize
+ *		[tileSize]</pre>
  *
- * @param args			unused
+ * @param args			the cell count and cell size, or the export options
  */
 public static void main(String... args)
 {
+	/* Export the image without launching the view (or asking for any input). */
+	if( args.length > 0 && EXPORT.equals(args[0]) )
+	{
+		int status = GridExporter.commandLine(
+				Arrays.copyOfRange(args, 1, args.length));
+		if( status != 0 ) System.exit(status);
+		return;
+	}
+
+	/* Load the classes of the dialogs while JavaFX is started by launch (which
+	   must be left to start it), and report the times if asked. */
+	FXStartup.setReporting(Arrays.asList(args).contains(TIMINGS));
+	FXStartup.warmUp(false);
+	String[] values = Arrays.stream(args).filter((arg) -> !TIMINGS.equals(arg))
+			.toArray(String[]::new);
+
 	/* Instantiate the view by using the Application launch method. */
-	Application.launch(GridView.class, args);
+	Application.launch(GridView.class, values);
 }
 }
\ No newline at end of file
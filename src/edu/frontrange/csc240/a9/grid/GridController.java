@@ -5,11 +5,18 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.ForkJoinPool;
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
-import javafx.beans.InvalidationListener;
-import javafx.beans.Observable;
 import javafx.fxml.Initializable;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
 import javafx.scene.canvas.Canvas;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.transform.Affine;
+import javafx.util.Duration;
+import software.haddon.util.RedrawScheduler;
 
 import static software.haddon.util.FXMessage.error;
 import static software.haddon.util.FXMessage.input;
@@ -18,25 +25,100 @@ import static software.haddon.util.FXMessage.input;
  * Controller for the exercise of displaying a tic-tac-toe board on the screen.
  *
  * @author		Dr. Bruce K. Haddon, Instructor
- * @version		3.0, 2020-08-22, CSC-240 Assignment 9
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
  */
 public class GridController implements Initializable
 {
 /**
- * (GUI) The panel holding and showing the actual board.
+ * The name of the commandline parameter selecting the way the grid is rendered.
+ */
+private static final String RENDERER = "renderer";
+
+/**
+ * The value of the renderer parameter selecting the software rasterizer, rather
+ * than the Canvas.
+ */
+private static final String RENDERER_PIXELS = "pixels";
+
+/**
+ * The time after the last zoom or pan event before the gesture is taken to have
+ * ended, and the grid is drawn again.
+ */
+private static final double SETTLE_MILLIS = 150.0;
+
+/**
+ * The amount of scrolling (in the units of a scroll event) for one notch of a mouse
+ * wheel.
+ */
+private static final double SCROLL_NOTCH = 40.0;
+
+/**
+ * The factor by which the grid is zoomed for one notch of a mouse wheel.
+ */
+private static final double ZOOM_PER_NOTCH = 1.1;
+
+/**
+ * (GUI) The panel holding and showing the actual board, or null if the grid is
+ * rendered by the software rasterizer.
  */
 private Canvas canvas;
 
+/**
+ * (GUI) The node showing the grid: either the canvas or the view of the image
+ * rendered by the software rasterizer.
+ */
+private Node display;
+
 /**
  * Overall size of the canvas.
  */
 private double canvasSize;
 
+/**
+ * The last position (in the coordinates of the parent of the canvas) of the mouse
+ * while dragging.
+ */
+private Point2D dragPoint;
+
+/**
+ * The transformation applied to the last drawing of the canvas while a zoom or pan
+ * gesture is in progress. It is the identity transformation at other times.
+ */
+private final Affine gesture = new Affine();
+
+/**
+ * The horizontal part of the translation of the gesture that comes from panning
+ * (rather than from zooming about a point), as it has been scaled by any zooming
+ * since.
+ */
+private double gestureMoveX;
+
+/**
+ * The vertical part of the translation of the gesture that comes from panning.
+ */
+private double gestureMoveY;
+
 /**
  * The model for this controller.
  */
 private final GridModel model;
 
+/**
+ * Scheduler that collapses the requests to redraw into one per pulse.
+ */
+private RedrawScheduler scheduler;
+
+/**
+ * Timer that finds the end of a zoom or pan gesture.
+ */
+private PauseTransition settle;
+
+/**
+ * The software rasterizer rendering the grid, or null if the grid is drawn on the
+ * canvas.
+ */
+private GridPixelRenderer pixelRenderer;
+
 /**
  * (GUI) Title
  */
@@ -61,16 +143,43 @@ public GridController(GridView view)
 	model = new GridModel();
 }
 
+/**
+ * Find the cell of the grid at a point of the scene (such as the position of the
+ * mouse), as the grid is shown, including any zoom or pan still in progress. The
+ * cell is found from the same layout used to draw the grid.
+ *
+ * @param sceneX		the x-coordinate of the point in the scene
+ * @param sceneY		the y-coordinate of the point in the scene
+ * @return				the row and column of the cell, or null if the point is
+ *						not on the grid
+ */
+public int[] findCell(double sceneX, double sceneY)
+{
+	Point2D local = display.sceneToLocal(sceneX, sceneY);
+	return model.findCell(local.getX(), local.getY());
+}
+
 /**
  * Get the canvas on which the tic tac toe board is to be drawn.
  *
- * @return				the canvas
+ * @return				the canvas, or null if the software rasterizer is in use
  */
 public Canvas getCanvas()
 {
 	return canvas;
 }
 
+/**
+ * Get the node that shows the grid in the view: the canvas, or the view of the
+ * image rendered by the software rasterizer.
+ *
+ * @return				the node
+ */
+public Node getDisplay()
+{
+	return display;
+}
+
 /**
  * Inform the caller of the model used by this controller.
  *
@@ -81,6 +190,17 @@ public GridModel getModel()
 	return model;
 }
 
+/**
+ * The scheduler used to redraw the grid, made available so that the count of
+ * collapsed requests can be observed.
+ *
+ * @return				the scheduler
+ */
+public RedrawScheduler getScheduler()
+{
+	return scheduler;
+}
+
 /**
  * @return				the title
  */
@@ -103,44 +223,136 @@ public void initialize(URL url, ResourceBundle rb)
 	   commandline values, ask the user for a pair of values. If there is still no
 	   values, use the default values. */
 	Application.Parameters params = view.getParameters();
-	List<String> values = new ArrayList<>(params.getRaw());
+	List<String> values = new ArrayList<>(params.getUnnamed());
 	/* Deal with the values input by the user. */
 	processInputs(values);
 
-	/* This listener listens to the scene in which the canvas is embedded, when
-	   the size of the scene is change, the canvas is redrawn (and also resize). */
-	@SuppressWarnings("Convert2Lambda")
-	InvalidationListener listener = new InvalidationListener()
+	/* The grid is drawn on a canvas, unless the software rasterizer is chosen by
+	   the parameter --renderer=pixels. */
+	if( RENDERER_PIXELS.equals(params.getNamed().get(RENDERER)) )
+		pixelRenderer = new GridPixelRenderer(model, ForkJoinPool.commonPool());
+
+	/* The scheduler redraws the canvas at most once per pulse, however many
+	   times the size of the scene is changed during that pulse. */
+	scheduler = new RedrawScheduler(() ->
 			{
-				@Override
-				public void invalidated(Observable o)
-				{
-					/* Find the current size of the scene. */
-					double width = view.getScene().getWidth();
-					double height = view.getScene().getHeight();
-					/* Give up if the values are not yet initialized. */
-					if( width == 0.0 || Double.isNaN(width) ) return;
-					if( height == 0.0 || Double.isNaN(height) ) return;
-					/* Draw the grid using the new sizes. */
-					model.draw(canvas, width, height);
-				}
-			};
-
-	/* Add this listener to the width and height properties of the scene. */
-	view.getScene().widthProperty().addListener(listener);
-	view.getScene().heightProperty().addListener(listener);
+				/* Find the current size of the scene. */
+				double width = view.getScene().getWidth();
+				double height = view.getScene().getHeight();
+				/* Give up if the values are not yet initialized. */
+				if( width == 0.0 || Double.isNaN(width) ) return;
+				if( height == 0.0 || Double.isNaN(height) ) return;
+				/* Any gesture in progress is now applied to the model. */
+				commitGesture();
+				/* Draw the grid using the new sizes. */
+				drawGrid(width, height);
+			});
+
+	/* The listener of the scheduler listens to the scene in which the canvas is
+	   embedded: when the size of the scene is changed, the canvas is redrawn (and
+	   also resized). Add this listener to the width and height properties of the
+	   scene. */
+	view.getScene().widthProperty().addListener(scheduler.getListener());
+	view.getScene().heightProperty().addListener(scheduler.getListener());
 
 	/* Set the intial size to hold the count of cells with the given spacing. If
 	   the window is resized, the count of squares is kept the same, but the cell
 	   size is changed to accomodate the window size. */
 	canvasSize = model.getCanvasSize();
-	canvas = new Canvas(canvasSize, canvasSize);
-	model.draw(canvas, canvasSize, canvasSize);
+	if( pixelRenderer == null )
+		display = canvas = new Canvas(canvasSize, canvasSize);
+	else
+		display = pixelRenderer.getView();
+	drawGrid(canvasSize, canvasSize);
+
+	/* While zooming and panning, the last drawing is transformed to follow the
+	   gesture. When the gesture has ended, the grid is drawn again. */
+	display.getTransforms().add(gesture);
+	settle = new PauseTransition(Duration.millis(SETTLE_MILLIS));
+	settle.setOnFinished((e) -> redrawNow());
+	display.setOnScroll(this::zoom);
+	display.setOnMousePressed(this::startPan);
+	display.setOnMouseDragged(this::pan);
+	display.setOnMouseReleased((e) ->
+			{
+				settle.stop();
+				redrawNow();
+			});
+	/* A double click returns the grid to fit the window. */
+	display.setOnMouseClicked((e) ->
+			{
+				if( e.getClickCount() != 2 || !e.isStillSincePress() ) return;
+				model.resetView();
+				scheduler.request();
+			});
 
 	/* The title for the application. */
 	title = "Grid";
 }
 
+/**
+ * Apply to the model the zoom and pan of the gesture in progress (if any), and
+ * remove that transformation from the canvas, ready for the canvas to be drawn
+ * again.
+ */
+private void commitGesture()
+{
+	if( gesture.isIdentity() ) return;
+	/* The panning is given apart from the zooming, so that, if the zoom is
+	   limited, only the part of the translation that comes from the zooming is
+	   changed. */
+	model.transformView(gesture.getMxx(), gesture.getTx() - gestureMoveX,
+			gesture.getTy() - gestureMoveY, gestureMoveX, gestureMoveY);
+	gesture.setToIdentity();
+	gestureMoveX = 0.0;
+	gestureMoveY = 0.0;
+}
+
+/**
+ * Draw the grid at the given size, by whichever means has been chosen.
+ *
+ * @param width			the width of the drawing
+ * @param height		the height of the drawing
+ */
+private void drawGrid(double width, double height)
+{
+	if( pixelRenderer == null )
+		model.draw(canvas, width, height);
+	else
+		pixelRenderer.draw(width, height);
+}
+
+/**
+ * Find the position of a mouse event in the coordinates of the parent of the
+ * canvas, which are those in which the gesture transformation is applied.
+ *
+ * @param sceneX		the x-position of the event in the scene
+ * @param sceneY		the y-position of the event in the scene
+ * @return				the position of the event
+ */
+private Point2D inParent(double sceneX, double sceneY)
+{
+	return display.getParent().sceneToLocal(sceneX, sceneY);
+}
+
+/**
+ * Pan the last drawing of the grid by the movement of the mouse since the last
+ * event of the drag.
+ *
+ * @param e				the mouse event
+ */
+private void pan(MouseEvent e)
+{
+	if( dragPoint == null ) return;
+	Point2D point = inParent(e.getSceneX(), e.getSceneY());
+	gesture.prependTranslation(point.getX() - dragPoint.getX(),
+			point.getY() - dragPoint.getY());
+	gestureMoveX += point.getX() - dragPoint.getX();
+	gestureMoveY += point.getY() - dragPoint.getY();
+	dragPoint = point;
+	settle.playFromStart();
+}
+
 /**
  * Process the values specified by the user, either via the commandline or
  * by responding to pop-ups requesting values.
@@ -186,4 +398,44 @@ private void processInputs(List<String> values)
 		error("Cell size \"" + sizeString + "\" is invalid",
 				"Replaced by " + model.getCellSize());
 }
+
+/**
+ * The end of a gesture: the grid is drawn again, in the same pulse, so that the
+ * transformed drawing is replaced without a flicker.
+ */
+private void redrawNow()
+{
+	if( gesture.isIdentity() ) return;
+	scheduler.request();
+	scheduler.flush();
+}
+
+/**
+ * Note the start of a drag with the mouse, which pans the grid.
+ *
+ * @param e				the mouse event
+ */
+private void startPan(MouseEvent e)
+{
+	dragPoint = inParent(e.getSceneX(), e.getSceneY());
+}
+
+/**
+ * Zoom the last drawing of the grid about the position of the mouse, by an amount
+ * depending on the amount of scrolling.
+ *
+ * @param e				the scroll event
+ */
+private void zoom(ScrollEvent e)
+{
+	if( e.getDeltaY() == 0.0 ) return;
+	double factor = Math.pow(ZOOM_PER_NOTCH, e.getDeltaY() / SCROLL_NOTCH);
+	Point2D point = inParent(e.getSceneX(), e.getSceneY());
+	gesture.prependScale(factor, factor, point.getX(), point.getY());
+	/* Any panning so far is scaled with the drawing. */
+	gestureMoveX *= factor;
+	gestureMoveY *= factor;
+	settle.playFromStart();
+	e.consume();
+}
 }
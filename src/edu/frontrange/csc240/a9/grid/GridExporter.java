@@ -0,0 +1,241 @@
+
+package edu.frontrange.csc240.a9.grid;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Exports an image of a grid to a PNG file, without a display. The image may be far
+ * larger than any window. It is rendered in square tiles, by the threads of a
+ * fork-join pool, and passed to the PNG encoder a strip (one row of tiles) at a
+ * time, so that the memory needed depends on the size of the tiles and the width of
+ * the image, not on the whole size of the image.
+ * <p>
+ * While one strip is being encoded, the next is being rendered. </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
+ */
+public class GridExporter
+{
+/**
+ * The default size of the tiles (pixels).
+ */
+public static final int DEFAULT_TILE_SIZE = 256;
+
+/**
+ * The height of the image (pixels).
+ */
+private final int height;
+
+/**
+ * The model holding the grid to export.
+ */
+private final GridModel model;
+
+/**
+ * The pool of threads rendering the tiles.
+ */
+private final ForkJoinPool pool;
+
+/**
+ * The size of the tiles (pixels).
+ */
+private final int tileSize;
+
+/**
+ * The width of the image (pixels).
+ */
+private final int width;
+
+/**
+ * Constructor.
+ *
+ * @param model			the model holding the grid to export
+ * @param width			the width of the image (pixels)
+ * @param height		the height of the image (pixels)
+ * @param tileSize		the size of the tiles (pixels)
+ * @param pool			the pool of threads to render the tiles
+ */
+public GridExporter(GridModel model, int width, int height, int tileSize,
+		ForkJoinPool pool)
+{
+	if( width < 1 || height < 1 )
+		throw new IllegalArgumentException("Image must have a positive size");
+	if( tileSize < 1 )
+		throw new IllegalArgumentException("Tile size must be positive");
+	if( (long) width * tileSize > Integer.MAX_VALUE )
+		throw new IllegalArgumentException("Image too wide for the tile size");
+	this.model = model;
+	this.width = width;
+	this.height = height;
+	this.tileSize = tileSize;
+	this.pool = pool;
+}
+
+/**
+ * Render the grid, and write it as a PNG image to the given file.
+ *
+ * @param file			the file to be written
+ * @throws IOException	if the file cannot be written
+ */
+public void export(Path file) throws IOException
+{
+	try( OutputStream out = new BufferedOutputStream(Files.newOutputStream(file)) )
+	{
+		export(out);
+	}
+}
+
+/**
+ * Render the grid, and write it as a PNG image to the given stream. The stream is
+ * closed when the image is complete.
+ *
+ * @param out			the stream to which to write
+ * @throws IOException	if the stream cannot be written
+ */
+public void export(OutputStream out) throws IOException
+{
+	/* The grid is laid out for the size of the image, just as for a canvas. */
+	model.layout(width, height);
+	GridRasterizer rasterizer =
+			new GridRasterizer(model, GridRasterizer.BACKGROUND);
+
+	/* Two strips: one being encoded while the other is being rendered. */
+	int[][] strips = { new int[width * tileSize], new int[width * tileSize] };
+	try( PngWriter writer = new PngWriter(out, width, height) )
+	{
+		ForkJoinTask<Void> next =
+				pool.submit(new Strip(rasterizer, strips[0], 0));
+		for( int top = 0, index = 0; top < height; top += tileSize, index ^= 1 )
+		{
+			/* Wait for this strip, then start on the one after it. */
+			next.join();
+			int following = top + tileSize;
+			if( following < height )
+				next = pool.submit(
+						new Strip(rasterizer, strips[index ^ 1], following));
+			int rows = Math.min(tileSize, height - top);
+			for( int row = 0; row != rows; ++row )
+				writer.writeRow(strips[index], row * width);
+		}
+	}
+}
+
+/**
+ * Export an image of a grid, as directed by the commandline. The arguments are the
+ * file to write, the count of cells, the size of each cell (pixels), and (optional)
+ * the size of the tiles (pixels). The image is the size of the grid with its
+ * margin.
+ *
+ * @param args			file, cell count, cell size, and (optional) tile size
+ * @return				zero if the image was written, otherwise not zero
+ */
+public static int commandLine(String... args)
+{
+	if( args.length < 3 )
+	{
+		System.err.println("Use: --export file.png cellCount cellSize [tileSize]");
+		return 2;
+	}
+	try
+	{
+		GridModel model = new GridModel();
+		int cellCount = Integer.parseInt(args[1].replaceAll("\\s|_|,", ""));
+		double cellSize = Double.parseDouble(args[2].replaceAll("\\s|_|,", ""));
+		int tileSize = args.length > 3 ?
+				Integer.parseInt(args[3].replaceAll("\\s|_|,", "")) :
+				DEFAULT_TILE_SIZE;
+		if( !model.setCellCount(cellCount) )
+			System.err.println("Cell count " + cellCount + " replaced by " +
+					model.getCellCount());
+		if( !model.setCellSize(cellSize) )
+			System.err.println("Cell size " + cellSize + " replaced by " +
+					model.getCellSize());
+
+		/* The image holds the whole grid at the given cell size. */
+		double side = model.getCellCount() * model.getCellSize() +
+				2.0 * model.getMargin();
+		if( side > Integer.MAX_VALUE )
+			throw new IllegalArgumentException("Image too large: " + side);
+		int size = (int) Math.ceil(side);
+
+		long start = System.nanoTime();
+		new GridExporter(model, size, size, tileSize, ForkJoinPool.commonPool())
+				.export(Path.of(args[0]));
+		System.out.printf("Wrote %s: %d x %d pixels in %.1f s%n", args[0], size,
+				size, (System.nanoTime() - start) / 1.0E9);
+		return 0;
+	} catch( IOException | IllegalArgumentException ex )
+	{
+		System.err.println("Export failed: " + ex.getMessage());
+		return 1;
+	}
+}
+
+/**
+ * The rendering of one strip: a row of tiles, each rendered as a separate task.
+ */
+@SuppressWarnings("serial")
+private final class Strip extends RecursiveAction
+{
+/**
+ * The rasterizer rendering the tiles.
+ */
+private final GridRasterizer rasterizer;
+
+/**
+ * The pixels of the strip.
+ */
+private final int[] pixels;
+
+/**
+ * The top row of the strip in the image.
+ */
+private final int top;
+
+/**
+ * Constructor.
+ *
+ * @param rasterizer	the rasterizer rendering the tiles
+ * @param pixels		the pixels of the strip
+ * @param top			the top row of the strip in the image
+ */
+Strip(GridRasterizer rasterizer, int[] pixels, int top)
+{
+	this.rasterizer = rasterizer;
+	this.pixels = pixels;
+	this.top = top;
+}
+
+@Override
+protected void compute()
+{
+	int bottom = Math.min(height, top + tileSize);
+	List<RecursiveAction> tiles = new ArrayList<>();
+	for( int left = 0; left < width; left += tileSize )
+	{
+		final int tileLeft = left;
+		final int tileRight = Math.min(width, left + tileSize);
+		tiles.add(new RecursiveAction()
+		{
+			@Override
+			protected void compute()
+			{
+				rasterizer.render(pixels, tileLeft, width, tileLeft, top,
+						tileRight, bottom);
+			}
+		});
+	}
+	invokeAll(tiles);
+}
+}
+}
@@ -0,0 +1,278 @@
+
+package edu.frontrange.csc240.a9.grid;
+
+/**
+ * The placing of the lines of a grid, in whole pixels, for a given count of cells,
+ * spacing and origin. The coordinate of each line is snapped to
+ * the pixel on which it is drawn, and computed from the index of the line (so that
+ * no error accumulates from line to line). Every way of drawing the grid, and the
+ * finding of the cell under the mouse, use the same layout, so that they always
+ * agree on where each line is.
+ * <p>
+ * The coordinates are not held in tables, but computed when needed (which costs
+ * no more than looking them up), so that a layout is made in constant time however
+ * many cells there are: a new layout is made at each resize, zoom and pan. The
+ * cell holding a point is also found in constant time: an estimate is made from
+ * the spacing, and then corrected by at most a line or two. </p>
+ * <p>
+ * A layout does not change once it has been made. </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
+ */
+public final class GridLayout
+{
+/**
+ * The count of cells each way.
+ */
+private final int count;
+
+/**
+ * The x-coordinate of the first vertical line (before snapping).
+ */
+private final double originX;
+
+/**
+ * The y-coordinate of the first horizontal line (before snapping).
+ */
+private final double originY;
+
+/**
+ * The distance between lines (pixels, before snapping).
+ */
+private final double spacing;
+
+/**
+ * The spacing (cells) of the lines that are drawn.
+ */
+private final long step;
+
+/**
+ * Constructor.
+ *
+ * @param count			the count of cells each way
+ * @param originX		the x-coordinate of the first vertical line
+ * @param originY		the y-coordinate of the first horizontal line
+ * @param spacing		the distance between lines (pixels)
+ * @param step			the spacing (cells) of the lines that are drawn
+ */
+GridLayout(int count, double originX, double originY, double spacing, long step)
+{
+	this.count = count;
+	this.originX = originX;
+	this.originY = originY;
+	this.spacing = spacing;
+	this.step = step;
+}
+
+/**
+ * Find the column of the cell holding the given x-coordinate. A cell holds the
+ * pixels from its left line up to (but not including) the next line.
+ *
+ * @param x				the x-coordinate (pixels)
+ * @return				the column, or -1 if the coordinate is outside the grid
+ */
+public int columnAt(double x)
+{
+	long column = lastAtOrBefore((long) Math.floor(x), originX);
+	return column < 0 || column >= count ? -1 : (int) column;
+}
+
+/**
+ * @return				the count of cells each way
+ */
+public int getCellCount()
+{
+	return count;
+}
+
+/**
+ * @return				the distance between lines (pixels, before snapping)
+ */
+public double getSpacing()
+{
+	return spacing;
+}
+
+/**
+ * @return				the spacing (cells) of the lines that are drawn: one if
+ *						every line is drawn, otherwise the spacing of the major
+ *						lines
+ */
+public long getStep()
+{
+	return step;
+}
+
+/**
+ * The x-coordinate (the column of pixels) of a vertical line.
+ *
+ * @param index			the index of the line, from zero to the cell count
+ * @return				the x-coordinate of the line
+ */
+public long lineX(long index)
+{
+	return snap(originX, index);
+}
+
+/**
+ * The y-coordinate (the row of pixels) of a horizontal line.
+ *
+ * @param index			the index of the line, from zero to the cell count
+ * @return				the y-coordinate of the line
+ */
+public long lineY(long index)
+{
+	return snap(originY, index);
+}
+
+/**
+ * Find the row of the cell holding the given y-coordinate. A cell holds the pixels
+ * from its top line up to (but not including) the next line.
+ *
+ * @param y				the y-coordinate (pixels)
+ * @return				the row, or -1 if the coordinate is outside the grid
+ */
+public int rowAt(double y)
+{
+	long row = lastAtOrBefore((long) Math.floor(y), originY);
+	return row < 0 || row >= count ? -1 : (int) row;
+}
+
+/**
+ * The column of the cell holding the given column of pixels, limited to the cells
+ * of the grid.
+ *
+ * @param x				the column of pixels
+ * @return				the column of the cell
+ */
+int columnNear(long x)
+{
+	return clampCell(lastAtOrBefore(x, originX));
+}
+
+/**
+ * The index of the first vertical line to be drawn (a multiple of the step) at or
+ * to the right of the given column of pixels.
+ *
+ * @param x				the column of pixels
+ * @return				the index of the line, or more than the cell count if none
+ */
+long firstColumnLine(long x)
+{
+	return roundUp(lastAtOrBefore(x - 1, originX) + 1);
+}
+
+/**
+ * The index of the first horizontal line to be drawn (a multiple of the step) at or
+ * below the given row of pixels.
+ *
+ * @param y				the row of pixels
+ * @return				the index of the line, or more than the cell count if none
+ */
+long firstRowLine(long y)
+{
+	return roundUp(lastAtOrBefore(y - 1, originY) + 1);
+}
+
+/**
+ * The index of the last vertical line to be drawn (a multiple of the step) at or to
+ * the left of the given column of pixels.
+ *
+ * @param x				the column of pixels
+ * @return				the index of the line, or less than zero if none
+ */
+long lastColumnLine(long x)
+{
+	return roundDown(lastAtOrBefore(x, originX));
+}
+
+/**
+ * The index of the last horizontal line to be drawn (a multiple of the step) at or
+ * above the given row of pixels.
+ *
+ * @param y				the row of pixels
+ * @return				the index of the line, or less than zero if none
+ */
+long lastRowLine(long y)
+{
+	return roundDown(lastAtOrBefore(y, originY));
+}
+
+/**
+ * The row of the cell holding the given row of pixels, limited to the cells of the
+ * grid.
+ *
+ * @param y				the row of pixels
+ * @return				the row of the cell
+ */
+int rowNear(long y)
+{
+	return clampCell(lastAtOrBefore(y, originY));
+}
+
+/**
+ * Limit an index to the cells of the grid.
+ *
+ * @param index			the index
+ * @return				the index, from zero to one less than the cell count
+ */
+private int clampCell(long index)
+{
+	return (int) Math.max(0, Math.min(count - 1, index));
+}
+
+/**
+ * Find the last line (by index, from -1 to the cell count) whose snapped coordinate
+ * is at or before the given pixel. A line i is at floor(origin + i * spacing),
+ * which is at or before pixel p exactly when i &lt; (p + 1 - origin) / spacing; the
+ * estimate from this is corrected against the snapped coordinates themselves, to
+ * allow for rounding.
+ *
+ * @param pixel			the pixel (row or column)
+ * @param origin		the coordinate of the first line
+ * @return				the index of the line, or -1 if there is none
+ */
+private long lastAtOrBefore(long pixel, double origin)
+{
+	double estimate = Math.ceil((pixel + 1 - origin) / spacing) - 1.0;
+	long index = (long) Math.max(-1.0, Math.min(count, estimate));
+	while( index < count && snap(origin, index + 1) <= pixel ) ++index;
+	while( index >= 0 && snap(origin, index) > pixel ) --index;
+	return index;
+}
+
+/**
+ * Round an index of a line down to a multiple of the step.
+ *
+ * @param index			the index
+ * @return				the rounded index (negative if the index is negative)
+ */
+private long roundDown(long index)
+{
+	return index < 0 ? -1 : index / step * step;
+}
+
+/**
+ * Round an index of a line up to a multiple of the step.
+ *
+ * @param index			the index (not negative)
+ * @return				the rounded index
+ */
+private long roundUp(long index)
+{
+	return (index + step - 1) / step * step;
+}
+
+/**
+ * The snapped coordinate of a line: the pixel on which it falls.
+ *
+ * @param origin		the coordinate of the first line
+ * @param index			the index of the line
+ * @return				the coordinate
+ */
+private long snap(double origin, long index)
+{
+	return (long) Math.floor(origin + index * spacing);
+}
+}
@@ -1,8 +1,13 @@
 
 package edu.frontrange.csc240.a9.grid;
 
+import edu.frontrange.csc240.a9.render.CanvasTarget;
+import edu.frontrange.csc240.a9.render.RenderTarget;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
 
 import static java.lang.Math.max;
 
@@ -12,7 +17,7 @@ import static java.lang.Math.max;
  * grid, as well as the default values (which are the minimal) for each.
  *
  * @author		Dr. Bruce K. Haddon, Instructor
- * @version		3.0, 2020-08-22, CSC-240 Assignment 9
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
  */
 public class GridModel
 {
@@ -21,6 +26,49 @@ public class GridModel
  */
 private static final double MARGIN = 12.0;				// pixels
 
+/**
+ * The color with which cells that are filled are drawn.
+ */
+static final Color CELL_FILL = Color.STEELBLUE;
+
+/**
+ * The color with which the lines are drawn.
+ */
+static final Color LINE = Color.BLACK;
+
+/**
+ * The spacing of the major lines, in cells, when there is not enough space to show
+ * the line of every cell.
+ */
+private static final int MAJOR_INTERVAL = 10;
+
+/**
+ * The largest initial size of the canvas, so that a grid of very many cells does
+ * not start with a canvas too large to be shown.
+ */
+private static final double MAXIMUM_CANVAS_SIZE = 1000.0;	// pixels
+
+/**
+ * The largest factor by which the grid may be zoomed.
+ */
+private static final double MAXIMUM_ZOOM = 1.0E7;
+
+/**
+ * The least spacing of the lines (pixels) that are to be drawn individually. Lines
+ * closer than this are not drawn, but are represented by a flat fill.
+ */
+private static final double MINIMUM_LINE_SPACING = 4.0;	// pixels
+
+/**
+ * The color used to represent lines that are too close to be drawn individually.
+ */
+static final Color MINOR_FILL = Color.gray(0.0, 0.35);
+
+/**
+ * The smallest factor by which the grid may be zoomed.
+ */
+private static final double MINIMUM_ZOOM = 0.1;
+
 /**
  * Minimum spacing of squares in the overall board (also used as the default).
  */
@@ -31,6 +79,12 @@ private static final int MININUM_COUNT = 10;			// count of cells
  */
 private static final double MININUM_SIZE = 10.0;
 
+/**
+ * Previously rendered images of the grid, so that a size seen before need not be
+ * drawn again.
+ */
+private final GridRasterCache cache = new GridRasterCache();
+
 /**
  * The number of cells in the grid, to form a square grid.
  */
@@ -41,6 +95,38 @@ private int cellCount;
  */
 private double cellSize;
 
+/**
+ * The count of changes to the layer of filled cells when the cache was last known
+ * to be consistent with it.
+ */
+private long cachedModifications;
+
+/**
+ * The layer holding which cells are filled, or null if no cells are filled.
+ */
+private CellLayer filled;
+
+/**
+ * The placing of the lines for the current size, zoom and pan, or null if it has
+ * yet to be made.
+ */
+private GridLayout gridLayout;
+
+/**
+ * The horizontal distance the grid has been panned (pixels).
+ */
+private double panX;
+
+/**
+ * The vertical distance the grid has been panned (pixels).
+ */
+private double panY;
+
+/**
+ * The factor by which the grid has been zoomed (1.0 when it fits the canvas).
+ */
+private double zoom = 1.0;
+
 /**
  * Constructor:
  */
@@ -51,6 +137,11 @@ public GridModel() { }
  * given origin.
  * <p>
  * Note that this drawing does have the outside lines.
+ * <p>
+ * If the grid has already been drawn for the same cell count, cell size and canvas
+ * size, the cached image of that drawing is copied to the canvas. Otherwise the grid
+ * is drawn, and an image of the result is placed in the cache. Only the grid as it
+ * first fits the canvas is cached, not the views of it zoomed or panned. </p>
  *
  * @param canvas		the canvas on which to draw
  * @param width			the desired width of that canvas
@@ -58,42 +149,429 @@ public GridModel() { }
  */
 public void draw(Canvas canvas, double width, double height)
 {
-	/* Get the graphics context for this canvas. */
-	GraphicsContext g = canvas.getGraphicsContext2D();
-	/* Clear out the previous drawing. */
-	g.clearRect(0.0, 0.0, canvas.getWidth(), canvas.getHeight());
-
-	/* Set the new desired size for the canvas. */
-	canvas.setWidth(width);
-	canvas.setHeight(height);
+	/* Clear out the previous drawing, and set the new desired size for the
+	   canvas. */
+	RenderTarget target = new CanvasTarget(canvas);
+	target.begin(width, height);
 
 	/* Compute size of each of the cells of the grid. */
+	layout(width, height);
+	/* If the filled cells have changed, the cached images are no longer correct. */
+	if( filled != null && filled.getModifications() != cachedModifications )
+	{
+		cache.clear();
+		cachedModifications = filled.getModifications();
+	}
+
+	/* A zoomed or panned view is drawn directly, and is not cached. */
+	if( !isViewReset() )
+	{
+		drawVisible(target, 0.0, 0.0, width, height);
+		return;
+	}
+
+	/* If this grid has been drawn before, copy the image of it, and finish. */
+	Image image = cache.get(getCellCount(), cellSize, width, height);
+	if( image != null )
+	{
+		canvas.getGraphicsContext2D().drawImage(image, 0.0, 0.0);
+		return;
+	}
+
+	/* Draw only that part of the grid that can be seen on the canvas. */
+	drawVisible(target, 0.0, 0.0, width, height);
+
+	/* Keep an image of this drawing for when this size is seen again. */
+	SnapshotParameters parameters = new SnapshotParameters();
+	parameters.setFill(Color.TRANSPARENT);
+	WritableImage snapshot = new WritableImage(
+			(int) Math.ceil(width), (int) Math.ceil(height));
+	cache.put(getCellCount(), cellSize, width, height,
+			canvas.snapshot(parameters, snapshot));
+}
+
+/**
+ * Draw the current state of the model on the given target, with the current zoom
+ * and pan. Nothing is cached: this is the drawing done by the canvas when the image
+ * is not in the cache, and it can be done on any target, including those that
+ * need no display.
+ *
+ * @param target		the target on which to draw
+ * @param width			the desired width of the target
+ * @param height		the desired height of the target
+ */
+public void draw(RenderTarget target, double width, double height)
+{
+	target.begin(width, height);
+	layout(width, height);
+	drawVisible(target, 0.0, 0.0, width, height);
+}
+
+/**
+ * Draw the filled cells that fall within the given part of the grid, straight from
+ * the layer of filled cells. Runs of filled cells along a row are drawn as one
+ * rectangle, and empty stretches of a row are passed over a word at a time. If the
+ * cells are smaller than a pixel, one cell is sampled for each pixel, so that the
+ * work done depends on the size of the region, not on the count of cells. Each cell
+ * covers the pixels from its line up to (but not including) the next line.
+ *
+ * @param target		the target on which to draw
+ * @param layout		the placing of the lines
+ * @param x0			first visible column of pixels of the grid
+ * @param y0			first visible row of pixels of the grid
+ * @param x1			last visible column of pixels of the grid
+ * @param y1			last visible row of pixels of the grid
+ */
+private void drawCells(RenderTarget target, GridLayout layout, long x0, long y0,
+		long x1, long y1)
+{
+	if( layout.getSpacing() >= 1.0 )
+	{
+		/* The range of cells (by row and column) that are visible. */
+		int firstColumn = layout.columnNear(x0);
+		int lastColumn = layout.columnNear(x1);
+		int firstRow = layout.rowNear(y0);
+		int lastRow = layout.rowNear(y1);
+		for( int row = firstRow; row <= lastRow; ++row )
+		{
+			long top = layout.lineY(row);
+			long height = layout.lineY(row + 1) - top;
+			int column = filled.nextNonZero(row, firstColumn, lastColumn + 1);
+			while( column >= 0 )
+			{
+				/* Find the end of this run of filled cells. */
+				int end = column;
+				while( end < lastColumn && filled.get(row, end + 1) != 0 ) ++end;
+				long left = layout.lineX(column);
+				target.fillRect(left, top, layout.lineX(end + 1) - left, height,
+						CELL_FILL);
+				column = filled.nextNonZero(row, end + 1, lastColumn + 1);
+			}
+		}
+	} else
+	{
+		/* One cell sampled for each pixel. */
+		for( long y = y0; y <= y1; ++y )
+		{
+			int row = layout.rowNear(y);
+			long start = -1;
+			for( long x = x0; x <= x1; ++x )
+			{
+				boolean set = filled.get(row, layout.columnNear(x)) != 0;
+				/* Note the start of a run, or draw the run that has ended. */
+				if( set && start < 0 ) start = x;
+				else if( !set && start >= 0 )
+				{
+					target.fillRect(start, y, x - start, 1.0, CELL_FILL);
+					start = -1;
+				}
+			}
+			if( start >= 0 )
+				target.fillRect(start, y, x1 + 1 - start, 1.0, CELL_FILL);
+		}
+	}
+}
+
+/**
+ * Draw those lines of the grid that fall within the given visible region. Only
+ * the lines that intersect that region are drawn, and each is drawn only across
+ * that region, so that the number of lines drawn depends on the size of the region
+ * and not on the count of cells.
+ * <p>
+ * If the cells are too small for every line to be seen (less than the minimum line
+ * spacing apart), the area of the grid is given a flat fill instead, and only the
+ * major lines (every tenth, hundredth, ... line, as needed to reach the minimum
+ * spacing) are drawn over that fill. The outside lines are always drawn. </p>
+ * <p>
+ * The lines are placed by the layout of the grid (which allows for the current zoom
+ * and pan): each is drawn through the centers of the pixels on which it falls, so
+ * that it covers exactly those pixels. Any filled cells are drawn before the lines.
+ * </p>
+ *
+ * @param target		the target on which to draw
+ * @param left			left edge of the visible region
+ * @param top			top edge of the visible region
+ * @param right			right edge of the visible region
+ * @param bottom		bottom edge of the visible region
+ */
+private void drawVisible(RenderTarget target, double left, double top, double right,
+		double bottom)
+{
+	GridLayout layout = getLayout();
+	int count = getCellCount();
+
+	/* The pixels of the grid that are visible. If none, there is nothing to draw.
+	   */
+	long x0 = Math.max(layout.lineX(0), (long) Math.floor(left));
+	long y0 = Math.max(layout.lineY(0), (long) Math.floor(top));
+	long x1 = Math.min(layout.lineX(count), (long) Math.ceil(right) - 1);
+	long y1 = Math.min(layout.lineY(count), (long) Math.ceil(bottom) - 1);
+	if( x0 > x1 || y0 > y1 ) return;
+
+	/* The spacing (in cells) of the lines to be drawn: every line if the cells are
+	   big enough, otherwise only the major lines. */
+	long step = layout.getStep();
+	if( step > 1 )
+	{
+		/* The lines not drawn are represented by a flat fill. */
+		target.fillRect(x0, y0, x1 - x0 + 1, y1 - y0 + 1, MINOR_FILL);
+	}
+	if( filled != null ) drawCells(target, layout, x0, y0, x1, y1);
+
+	/* Draw the horizontal lines that cross the visible region, for each y value. */
+	for( long row = layout.firstRowLine(y0); row <= layout.lastRowLine(y1);
+			row += step )
+		horizontalLine(target, layout.lineY(row), x0, x1);
+	/* Draw the vertical lines that cross the visible region, for each x value. */
+	for( long column = layout.firstColumnLine(x0);
+			column <= layout.lastColumnLine(x1); column += step )
+		verticalLine(target, layout.lineX(column), y0, y1);
+
+	/* The outside lines are drawn whatever the spacing, if they can be seen. */
+	if( step > 1 )
+	{
+		if( layout.lineY(0) >= y0 )
+			horizontalLine(target, layout.lineY(0), x0, x1);
+		if( layout.lineY(count) <= y1 )
+			horizontalLine(target, layout.lineY(count), x0, x1);
+		if( layout.lineX(0) >= x0 )
+			verticalLine(target, layout.lineX(0), y0, y1);
+		if( layout.lineX(count) <= x1 )
+			verticalLine(target, layout.lineX(count), y0, y1);
+	}
+}
+
+/**
+ * Draw a horizontal line covering the given row of pixels, from one column of
+ * pixels to another (inclusive). The line is drawn through the centers of the
+ * pixels; the (default, square) caps of the line reach the outer edges of the first
+ * and last pixels.
+ *
+ * @param target		the target on which to draw
+ * @param y				the row of pixels
+ * @param x0			the first column of pixels
+ * @param x1			the last column of pixels
+ */
+private static void horizontalLine(RenderTarget target, long y, long x0, long x1)
+{
+	target.strokeLine(x0 + 0.5, y + 0.5, x1 + 0.5, y + 0.5, LINE);
+}
+
+/**
+ * Draw a vertical line covering the given column of pixels, from one row of pixels
+ * to another (inclusive).
+ *
+ * @param target		the target on which to draw
+ * @param x				the column of pixels
+ * @param y0			the first row of pixels
+ * @param y1			the last row of pixels
+ */
+private static void verticalLine(RenderTarget target, long x, long y0, long y1)
+{
+	target.strokeLine(x + 0.5, y0 + 0.5, x + 0.5, y1 + 0.5, LINE);
+}
+
+/**
+ * Compute the size of each of the cells of the grid, so that the grid fits in the
+ * given width and height (less the margin). This is the layout used whether the
+ * grid is drawn on a canvas or rendered in some other way.
+ *
+ * @param width			the width available for the grid
+ * @param height		the height available for the grid
+ */
+void layout(double width, double height)
+{
 	double availableSize = Math.max(MININUM_SIZE, Math.min(width, height));
-	cellSize = (availableSize - 2.0 * getMargin()) / getCellCount();
-	/* The length of the lines is just the spacing by the number of cells.  */
-	double length = getCellCount() * cellSize;
+	double size = (availableSize - 2.0 * getMargin()) / getCellCount();
+	if( size != cellSize ) gridLayout = null;
+	cellSize = size;
+}
 
-	double xbound = Math.floor(length + cellSize + MARGIN);
-	double ybound =  Math.floor(length + cellSize + MARGIN);
+/**
+ * Find the cell holding the given point on the drawing of the grid, using the same
+ * layout as was used to draw it.
+ *
+ * @param x				the x-coordinate of the point (pixels)
+ * @param y				the y-coordinate of the point (pixels)
+ * @return				the row and column of the cell, or null if the point is not
+ *						on the grid
+ */
+public int[] findCell(double x, double y)
+{
+	GridLayout layout = getLayout();
+	int row = layout.rowAt(y);
+	int column = layout.columnAt(x);
+	return row < 0 || column < 0 ? null : new int[] { row, column };
+}
 
-	/* Draw the horizontal lines starting at the x margin, for each y value. */
-	for( double y = MARGIN, x = MARGIN; y < ybound; y += cellSize )
-		g.strokeLine(x, y, x + length, y);
+/**
+ * The placing of the lines of the grid, as it was last drawn (or for the size at
+ * which it was last laid out), with the current zoom and pan. The layout is made
+ * only when one of those has changed.
+ *
+ * @return				the layout
+ */
+public GridLayout getLayout()
+{
+	if( gridLayout == null )
+	{
+		/* The spacing of the lines on the canvas, and the position of the first
+		   line each way, after zooming and panning. */
+		double spacing = cellSize * zoom;
+		double origin = MARGIN * zoom;
+		/* The spacing (in cells) of the lines to be drawn: one if the cells are big
+		   enough for every line to be seen, otherwise the spacing of the major
+		   lines that are at least the minimum line spacing apart. */
+		long step = 1;
+		while( step * spacing < MINIMUM_LINE_SPACING && step < getCellCount() )
+			step *= MAJOR_INTERVAL;
+		gridLayout = new GridLayout(getCellCount(), origin + panX, origin + panY,
+				spacing, step);
+	}
+	return gridLayout;
+}
+
+/**
+ * Create a layer of state for the cells of this grid, with every value zero. The
+ * layer has the current cell count.
+ *
+ * @param bits			bits per value: CellLayer.BOOLEAN, BYTE or INT
+ * @param offHeap		true if the values are to be held off the heap
+ * @return				the new layer
+ */
+public CellLayer createLayer(int bits, boolean offHeap)
+{
+	return new CellLayer(getCellCount(), bits, offHeap);
+}
+
+/**
+ * The layer holding which cells are filled (those with a value that is not zero).
+ *
+ * @return				the layer, or null if no cells are filled
+ */
+public CellLayer getFilled()
+{
+	return filled;
+}
+
+/**
+ * Set the layer holding which cells are to be drawn filled (those with a value
+ * that is not zero). The layer must have the same cell count as the grid.
+ *
+ * @param filled		the layer, or null if no cells are to be filled
+ */
+public void setFilled(CellLayer filled)
+{
+	if( filled != null && filled.getCellCount() != getCellCount() )
+		throw new IllegalArgumentException("Layer does not match the cell count");
+	this.filled = filled;
+	cache.clear();
+	cachedModifications = filled == null ? 0 : filled.getModifications();
+}
 
-	/* Draw the vertical lines starting at the y margin, for each x values. */
-	for( double x = MARGIN, y = MARGIN; x < xbound; x += cellSize )
-		g.strokeLine(x, y, x, y + length);
+/**
+ * The cache of images of the grid, made available so that the hit and miss counts
+ * can be observed.
+ *
+ * @return				the cache
+ */
+public GridRasterCache getCache()
+{
+	return cache;
 }
 
 /**
  * Get the canvas size based on the number of squares, the size of the squares, and
- * the space left for a margin.
+ * the space left for a margin. A grid of very many cells is limited to a maximum
+ * initial size, with the cells made smaller to fit.
  *
  * @return				the canvas size
  */
 public double getCanvasSize()
 {
-	return getCellCount() * getCellSize() +	2.0 * getMargin();
+	return Math.min(MAXIMUM_CANVAS_SIZE,
+			getCellCount() * getCellSize() + 2.0 * getMargin());
+}
+
+/**
+ * @return				the horizontal distance the grid has been panned (pixels)
+ */
+public double getPanX()
+{
+	return panX;
+}
+
+/**
+ * @return				the vertical distance the grid has been panned (pixels)
+ */
+public double getPanY()
+{
+	return panY;
+}
+
+/**
+ * @return				the factor by which the grid has been zoomed
+ */
+public double getZoom()
+{
+	return zoom;
+}
+
+/**
+ * @return				true if the grid is neither zoomed nor panned
+ */
+public boolean isViewReset()
+{
+	return zoom == 1.0 && panX == 0.0 && panY == 0.0;
+}
+
+/**
+ * Return the view of the grid to that which just fits the canvas.
+ */
+public void resetView()
+{
+	gridLayout = null;
+	zoom = 1.0;
+	panX = 0.0;
+	panY = 0.0;
+}
+
+/**
+ * Change the view of the grid by the given scaling followed by the given
+ * translation, both in canvas coordinates. A point on the canvas at (x, y) is moved
+ * to (scale * x + translateX + moveX, scale * y + translateY + moveY), where the
+ * translation (translateX, translateY) is that which comes from scaling about some
+ * point (or points), and the move (moveX, moveY) is that of panning. The zoom is
+ * kept within its limits.
+ *
+ * @param scale			the scaling to apply
+ * @param translateX	the horizontal translation that comes from the scaling
+ *						(pixels)
+ * @param translateY	the vertical translation that comes from the scaling
+ *						(pixels)
+ * @param moveX			the horizontal movement of panning (pixels)
+ * @param moveY			the vertical movement of panning (pixels)
+ */
+public void transformView(double scale, double translateX, double translateY,
+		double moveX, double moveY)
+{
+	/* Limit the scaling so that the resulting zoom is within bounds. */
+	double limited = Math.max(MINIMUM_ZOOM, Math.min(MAXIMUM_ZOOM, zoom * scale));
+	if( Double.isNaN(limited) || limited <= 0.0 ) return;
+	/* If the scaling was limited, the translation that comes from the scaling is
+	   adjusted so that the same point (the point about which the scaling was
+	   made) stays fixed. The panning is kept as it was made. */
+	double applied = limited / zoom;
+	if( scale != 1.0 )
+	{
+		double adjustment = (1.0 - applied) / (1.0 - scale);
+		translateX *= adjustment;
+		translateY *= adjustment;
+	}
+	gridLayout = null;
+	zoom = limited;
+	panX = applied * panX + translateX + moveX;
+	panY = applied * panY + translateY + moveY;
 }
 
 /**
@@ -124,6 +602,9 @@ public int getCellCount()
 public boolean setCellCount(int cellCount)
 {
 	this.cellCount = max(cellCount, MININUM_COUNT);
+	gridLayout = null;
+	/* A layer of filled cells for a different count no longer applies. */
+	if( filled != null && filled.getCellCount() != this.cellCount ) setFilled(null);
 	return this.cellCount == cellCount;
 }
 
@@ -147,6 +628,7 @@ public double getCellSize()
 public boolean setCellSize(double cellSize)
 {
 	this.cellSize = max(cellSize, MININUM_SIZE);
+	gridLayout = null;
 	return this.cellSize == cellSize;
 }
 }
@@ -0,0 +1,114 @@
+
+package edu.frontrange.csc240.a9.grid;
+
+import java.nio.IntBuffer;
+import java.util.concurrent.ForkJoinPool;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+/**
+ * An alternative to drawing the grid on a Canvas: the grid is rendered by the
+ * software rasterizer into an array of pixels, in horizontal bands on all the
+ * threads of a fork-join pool, and shown by an ImageView. The image is backed by a
+ * PixelBuffer that wraps the same array, so that the pixels are given to the scene
+ * without being copied.
+ * <p>
+ * The lines and cells are placed exactly as on the Canvas. The drawing is to be
+ * done on the JavaFX Application thread, which waits while the bands are rendered.
+ * </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
+ */
+public class GridPixelRenderer
+{
+/**
+ * The buffer wrapping the pixels, backing the image.
+ */
+private PixelBuffer<IntBuffer> buffer;
+
+/**
+ * The height of the image (pixels).
+ */
+private int height;
+
+/**
+ * The model holding the grid.
+ */
+private final GridModel model;
+
+/**
+ * The pixels of the image (pre-multiplied ARGB; all are opaque).
+ */
+private int[] pixels;
+
+/**
+ * The pool of threads rendering the bands.
+ */
+private final ForkJoinPool pool;
+
+/**
+ * The node showing the image in the scene.
+ */
+private final ImageView view = new ImageView();
+
+/**
+ * The width of the image (pixels).
+ */
+private int width;
+
+/**
+ * Constructor.
+ *
+ * @param model			the model holding the grid
+ * @param pool			the pool of threads to render the bands
+ */
+public GridPixelRenderer(GridModel model, ForkJoinPool pool)
+{
+	this.model = model;
+	this.pool = pool;
+}
+
+/**
+ * Draw the current state of the model, at the given size. If the size has changed,
+ * a new array of pixels (and image) is made for it.
+ *
+ * @param width			the desired width of the image
+ * @param height		the desired height of the image
+ */
+public void draw(double width, double height)
+{
+	int w = Math.max(1, (int) Math.ceil(width));
+	int h = Math.max(1, (int) Math.ceil(height));
+	if( buffer == null || w != this.width || h != this.height )
+	{
+		this.width = w;
+		this.height = h;
+		pixels = new int[w * h];
+		buffer = new PixelBuffer<>(w, h, IntBuffer.wrap(pixels),
+				PixelFormat.getIntArgbPreInstance());
+		view.setImage(new WritableImage(buffer));
+	}
+
+	/* The grid is laid out for this size, just as for a canvas. */
+	model.layout(width, height);
+	GridRasterizer rasterizer =
+			new GridRasterizer(model, GridRasterizer.BACKGROUND);
+	/* Render into the pixels, and have the whole image shown again. */
+	buffer.updateBuffer((b) ->
+			{
+				rasterizer.renderBands(pixels, w, h, pool);
+				return null;
+			});
+}
+
+/**
+ * @return				the node showing the image in the scene
+ */
+public ImageView getView()
+{
+	return view;
+}
+}
@@ -0,0 +1,226 @@
+
+package edu.frontrange.csc240.a9.grid;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javafx.scene.image.Image;
+
+/**
+ * A cache of rendered grid images. Each image is the complete drawing of the grid
+ * for one combination of cell count, cell size and canvas dimensions, so that when
+ * the window returns to a size that has been seen before, the image can be copied
+ * to the canvas instead of stroking every line again.
+ * <p>
+ * The cache is bounded: when it is full, the image that was least recently used is
+ * discarded. A count is kept of the hits and misses, so that the effectiveness of
+ * the cache can be observed. </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
+ */
+public class GridRasterCache
+{
+/**
+ * The default number of images held in the cache.
+ */
+private static final int DEFAULT_CAPACITY = 8;
+
+/**
+ * The maximum number of images held in the cache.
+ */
+private final int capacity;
+
+/**
+ * The cached images, in order of use (least recently used first).
+ */
+private final Map<Key, Image> images;
+
+/**
+ * Count of requests that found an image in the cache.
+ */
+private long hits;
+
+/**
+ * Count of requests that did not find an image in the cache.
+ */
+private long misses;
+
+/**
+ * Constructor: a cache with the default capacity.
+ */
+public GridRasterCache()
+{
+	this(DEFAULT_CAPACITY);
+}
+
+/**
+ * Constructor.
+ *
+ * @param capacity		the maximum number of images to be held (at least one)
+ */
+@SuppressWarnings("serial")
+public GridRasterCache(int capacity)
+{
+	if( capacity < 1 )
+		throw new IllegalArgumentException("Cache capacity must be positive");
+	this.capacity = capacity;
+
+	/* A LinkedHashMap in access order gives the least recently used entry as the
+	   eldest entry, which is removed when the capacity is exceeded. */
+	images = new LinkedHashMap<>(capacity * 2, 0.75F, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Image> eldest)
+		{
+			return size() > GridRasterCache.this.capacity;
+		}
+	};
+}
+
+/**
+ * Remove all the images from the cache. The counts are not changed.
+ */
+public void clear()
+{
+	images.clear();
+}
+
+/**
+ * Find the image for the given parameters, if one has been cached. The hit or miss
+ * is counted.
+ *
+ * @param cellCount		the count of cells each way in the grid
+ * @param cellSize		the size of each cell (pixels)
+ * @param width			the width of the canvas
+ * @param height		the height of the canvas
+ * @return				the cached image, or null if there is none
+ */
+public Image get(int cellCount, double cellSize, double width, double height)
+{
+	Image image = images.get(new Key(cellCount, cellSize, width, height));
+	if( image == null ) ++misses;
+	else ++hits;
+	return image;
+}
+
+/**
+ * @return				the maximum number of images held in the cache
+ */
+public int getCapacity()
+{
+	return capacity;
+}
+
+/**
+ * @return				the count of requests that found a cached image
+ */
+public long getHits()
+{
+	return hits;
+}
+
+/**
+ * @return				the count of requests that did not find a cached image
+ */
+public long getMisses()
+{
+	return misses;
+}
+
+/**
+ * Place the image for the given parameters in the cache, discarding the least
+ * recently used image if the cache is full.
+ *
+ * @param cellCount		the count of cells each way in the grid
+ * @param cellSize		the size of each cell (pixels)
+ * @param width			the width of the canvas
+ * @param height		the height of the canvas
+ * @param image			the rendered grid
+ */
+public void put(int cellCount, double cellSize, double width, double height,
+		Image image)
+{
+	images.put(new Key(cellCount, cellSize, width, height), image);
+}
+
+/**
+ * Reset the hit and miss counts to zero.
+ */
+public void resetCounts()
+{
+	hits = 0;
+	misses = 0;
+}
+
+/**
+ * @return				the number of images currently held
+ */
+public int size()
+{
+	return images.size();
+}
+
+/**
+ * The key identifying one rendered image of the grid.
+ */
+private static final class Key
+{
+/**
+ * The count of cells each way.
+ */
+private final int cellCount;
+
+/**
+ * The size of each cell.
+ */
+private final double cellSize;
+
+/**
+ * The height of the canvas.
+ */
+private final double height;
+
+/**
+ * The width of the canvas.
+ */
+private final double width;
+
+/**
+ * Constructor.
+ *
+ * @param cellCount		the count of cells each way in the grid
+ * @param cellSize		the size of each cell (pixels)
+ * @param width			the width of the canvas
+ * @param height		the height of the canvas
+ */
+Key(int cellCount, double cellSize, double width, double height)
+{
+	this.cellCount = cellCount;
+	this.cellSize = cellSize;
+	this.width = width;
+	this.height = height;
+}
+
+@Override
+@SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+public boolean equals(Object object)
+{
+	if( this == object ) return true;
+	if( !(object instanceof Key) ) return false;
+	Key other = (Key) object;
+	return cellCount == other.cellCount &&
+			Double.compare(cellSize, other.cellSize) == 0 &&
+			Double.compare(width, other.width) == 0 &&
+			Double.compare(height, other.height) == 0;
+}
+
+@Override
+public int hashCode()
+{
+	int hash = Integer.hashCode(cellCount);
+	hash = 31 * hash + Double.hashCode(cellSize);
+	hash = 31 * hash + Double.hashCode(width);
+	return 31 * hash + Double.hashCode(height);
+}
+}
+}
@@ -0,0 +1,312 @@
+
+package edu.frontrange.csc240.a9.grid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import javafx.scene.paint.Color;
+
+/**
+ * Renders the grid of a model into an array of pixels, without the use of a
+ * Canvas, or of any part of JavaFX that needs the JavaFX platform to be running.
+ * The placing of the lines, the major lines and flat fill for small cells, and the
+ * filled cells are all as they are drawn on a canvas by the model.
+ * <p>
+ * Any rectangle of the image can be rendered on its own, so that the image can be
+ * rendered in tiles or bands, by several threads at once (the rasterizer holds no
+ * state that changes while rendering). The layout of the model is taken when the
+ * rasterizer is created: the model should not be changed while rendering. </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
+ */
+public class GridRasterizer
+{
+/**
+ * The default color (ARGB) of the background, as shown in the GridView.
+ */
+public static final int BACKGROUND = 0xFFEEEEEE;
+
+/**
+ * The color (ARGB) of the lines.
+ */
+private static final int LINE = 0xFF000000;
+
+/**
+ * The color (ARGB) of the background.
+ */
+private final int background;
+
+/**
+ * The color (ARGB) of filled cells.
+ */
+private final int cell;
+
+/**
+ * The count of cells each way.
+ */
+private final int count;
+
+/**
+ * The layer of filled cells, or null if there are none.
+ */
+private final CellLayer filled;
+
+/**
+ * The color (ARGB) of the flat fill that represents lines too close to be drawn,
+ * as it appears over the background.
+ */
+private final int minor;
+
+/**
+ * The placing of the lines.
+ */
+private final GridLayout layout;
+
+/**
+ * Constructor: a rasterizer for the model as it is laid out now, on the given
+ * background color.
+ *
+ * @param model			the model to be rendered
+ * @param background	the color (ARGB) of the background
+ */
+public GridRasterizer(GridModel model, int background)
+{
+	this.background = background;
+	layout = model.getLayout();
+	count = layout.getCellCount();
+	filled = model.getFilled();
+	cell = argb(GridModel.CELL_FILL);
+	minor = blend(GridModel.MINOR_FILL, background);
+}
+
+/**
+ * Render a rectangle of the image into an array of pixels. The pixel at (x, y) of
+ * the image is placed in the array at offset + (y - top) * stride + (x - left).
+ *
+ * @param pixels		the array of pixels (ARGB values)
+ * @param offset		index in the array of the top left pixel of the rectangle
+ * @param stride		distance in the array from one row to the next
+ * @param left			left edge of the rectangle (pixels, inclusive)
+ * @param top			top edge of the rectangle (pixels, inclusive)
+ * @param right			right edge of the rectangle (pixels, exclusive)
+ * @param bottom		bottom edge of the rectangle (pixels, exclusive)
+ */
+public void render(int[] pixels, int offset, int stride, int left, int top,
+		int right, int bottom)
+{
+	/* The background. */
+	for( int y = top; y < bottom; ++y )
+	{
+		int start = offset + (y - top) * stride;
+		Arrays.fill(pixels, start, start + right - left, background);
+	}
+
+	/* The pixels on which the outside lines of the grid fall, and the part of the
+	   grid that is within this rectangle. If none, there is no more to draw. */
+	long gridLeft = layout.lineX(0);
+	long gridTop = layout.lineY(0);
+	long gridRight = layout.lineX(count);
+	long gridBottom = layout.lineY(count);
+	int x0 = (int) Math.max(left, gridLeft);
+	int y0 = (int) Math.max(top, gridTop);
+	int x1 = (int) Math.min(right - 1, gridRight);
+	int y1 = (int) Math.min(bottom - 1, gridBottom);
+	if( x0 > x1 || y0 > y1 ) return;
+
+	/* The lines not drawn are represented by a flat fill. */
+	long step = layout.getStep();
+	if( step > 1 )
+		for( int y = y0; y <= y1; ++y )
+		{
+			int start = offset + (y - top) * stride - left;
+			Arrays.fill(pixels, start + x0, start + x1 + 1, minor);
+		}
+
+	if( filled != null )
+		renderCells(pixels, offset, stride, left, top, x0, y0, x1, y1);
+
+	/* The horizontal lines falling on the rows of this rectangle. */
+	long lastRow = layout.lastRowLine(y1);
+	for( long row = layout.firstRowLine(y0); row <= lastRow; row += step )
+		horizontal(pixels, offset, stride, left, top, layout.lineY(row), x0, x1);
+	/* The vertical lines falling on the columns of this rectangle. */
+	long lastColumn = layout.lastColumnLine(x1);
+	for( long column = layout.firstColumnLine(x0); column <= lastColumn;
+			column += step )
+		vertical(pixels, offset, stride, left, top, layout.lineX(column), y0, y1);
+
+	/* The outside lines are drawn whatever the spacing, where they fall here. */
+	if( gridTop >= y0 )
+		horizontal(pixels, offset, stride, left, top, gridTop, x0, x1);
+	if( gridBottom <= y1 )
+		horizontal(pixels, offset, stride, left, top, gridBottom, x0, x1);
+	if( gridLeft >= x0 )
+		vertical(pixels, offset, stride, left, top, gridLeft, y0, y1);
+	if( gridRight <= x1 )
+		vertical(pixels, offset, stride, left, top, gridRight, y0, y1);
+}
+
+/**
+ * Render the whole of an image into an array of pixels, split into horizontal
+ * bands, one for each thread of the given pool, rendered at the same time. The
+ * array holds the rows of the image one after the other. There is no return until
+ * all the bands have been rendered.
+ *
+ * @param pixels		the array of pixels (ARGB values)
+ * @param width			the width of the image (pixels)
+ * @param height		the height of the image (pixels)
+ * @param pool			the pool of threads to render the bands
+ */
+@SuppressWarnings("serial")
+public void renderBands(int[] pixels, int width, int height, ForkJoinPool pool)
+{
+	int bands = Math.max(1, Math.min(height, pool.getParallelism()));
+	List<RecursiveAction> tasks = new ArrayList<>(bands);
+	for( int band = 0; band != bands; ++band )
+	{
+		/* The rows are shared as evenly as possible between the bands. */
+		final int top = (int) ((long) height * band / bands);
+		final int bottom = (int) ((long) height * (band + 1) / bands);
+		tasks.add(new RecursiveAction()
+		{
+			@Override
+			protected void compute()
+			{
+				render(pixels, top * width, width, 0, top, width, bottom);
+			}
+		});
+	}
+	pool.invoke(new RecursiveAction()
+	{
+		@Override
+		protected void compute()
+		{
+			invokeAll(tasks);
+		}
+	});
+}
+
+/**
+ * The ARGB value of a color.
+ *
+ * @param color			the color
+ * @return				the ARGB value
+ */
+static int argb(Color color)
+{
+	return (int) Math.round(color.getOpacity() * 255.0) << 24 |
+			(int) Math.round(color.getRed() * 255.0) << 16 |
+			(int) Math.round(color.getGreen() * 255.0) << 8 |
+			(int) Math.round(color.getBlue() * 255.0);
+}
+
+/**
+ * The opaque ARGB value of a (perhaps translucent) color as it appears over the
+ * given background.
+ *
+ * @param color			the color
+ * @param background	the background (ARGB)
+ * @return				the ARGB value
+ */
+private static int blend(Color color, int background)
+{
+	double alpha = color.getOpacity();
+	double[] over = { color.getRed(), color.getGreen(), color.getBlue() };
+	int result = 0xFF000000;
+	for( int i = 0; i != over.length; ++i )
+	{
+		int shift = 16 - 8 * i;
+		double under = ((background >>> shift) & 0xFF) / 255.0;
+		double value = alpha * over[i] + (1.0 - alpha) * under;
+		result |= (int) Math.round(value * 255.0) << shift;
+	}
+	return result;
+}
+
+/**
+ * Set the pixels of a horizontal line, on a row of pixels within the rectangle.
+ *
+ * @param pixels		the array of pixels
+ * @param offset		index of the top left pixel of the rectangle
+ * @param stride		distance in the array from one row to the next
+ * @param left			left edge of the rectangle
+ * @param top			top edge of the rectangle
+ * @param y				the row of pixels of the line
+ * @param x0			the first column of pixels of the line to set
+ * @param x1			the last column of pixels of the line to set
+ */
+private static void horizontal(int[] pixels, int offset, int stride, int left,
+		int top, long y, int x0, int x1)
+{
+	int start = offset + (int) (y - top) * stride - left;
+	Arrays.fill(pixels, start + x0, start + x1 + 1, LINE);
+}
+
+/**
+ * Set the pixels of filled cells within the given part of the rectangle. If the
+ * cells are at least a pixel in size, the runs of filled cells along each row are
+ * found from the layer, otherwise one cell is sampled for each pixel. Each cell
+ * covers the pixels from its line up to (but not including) the next line.
+ *
+ * @param pixels		the array of pixels
+ * @param offset		index of the top left pixel of the rectangle
+ * @param stride		distance in the array from one row to the next
+ * @param left			left edge of the rectangle
+ * @param top			top edge of the rectangle
+ * @param x0			first column of pixels to set
+ * @param y0			first row of pixels to set
+ * @param x1			last column of pixels to set
+ * @param y1			last row of pixels to set
+ */
+private void renderCells(int[] pixels, int offset, int stride, int left, int top,
+		int x0, int y0, int x1, int y1)
+{
+	int firstColumn = layout.columnNear(x0);
+	int lastColumn = layout.columnNear(x1);
+	boolean runs = layout.getSpacing() >= 1.0;
+	for( int y = y0; y <= y1; ++y )
+	{
+		int row = layout.rowNear(y);
+		int start = offset + (y - top) * stride - left;
+		if( runs )
+		{
+			/* The pixels within each filled cell. */
+			int column = filled.nextNonZero(row, firstColumn, lastColumn + 1);
+			while( column >= 0 )
+			{
+				int from = (int) Math.max(x0, layout.lineX(column));
+				int to = (int) Math.min(x1, layout.lineX(column + 1) - 1);
+				if( from <= to )
+					Arrays.fill(pixels, start + from, start + to + 1, cell);
+				column = filled.nextNonZero(row, column + 1, lastColumn + 1);
+			}
+		} else
+			/* One cell sampled for each pixel. */
+			for( int x = x0; x <= x1; ++x )
+				if( filled.get(row, layout.columnNear(x)) != 0 )
+					pixels[start + x] = cell;
+	}
+}
+
+/**
+ * Set the pixels of a vertical line, on a column of pixels within the rectangle.
+ *
+ * @param pixels		the array of pixels
+ * @param offset		index of the top left pixel of the rectangle
+ * @param stride		distance in the array from one row to the next
+ * @param left			left edge of the rectangle
+ * @param top			top edge of the rectangle
+ * @param x				the column of pixels of the line
+ * @param y0			the first row of pixels of the line to set
+ * @param y1			the last row of pixels of the line to set
+ */
+private static void vertical(int[] pixels, int offset, int stride, int left,
+		int top, long x, int y0, int y1)
+{
+	for( int y = y0; y <= y1; ++y )
+		pixels[offset + (y - top) * stride + (int) (x - left)] = LINE;
+}
+}
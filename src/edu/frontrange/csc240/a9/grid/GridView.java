@@ -2,9 +2,10 @@
 package edu.frontrange.csc240.a9.grid;
 
 import software.haddon.util.FXMessage;
+import software.haddon.util.FXStartup;
 import javafx.application.Application;
 import javafx.scene.Scene;
-import javafx.scene.canvas.Canvas;
+import javafx.scene.Node;
 import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
 
@@ -15,7 +16,7 @@ import static javafx.scene.control.Alert.AlertType.INFORMATION;
  * A Window for displaying a grid, with a label for the window.
  *
  * @author		Dr. Bruce K. Haddon, Instructor
- * @version		3.0, 2020-08-22, CSC-240 Assignment 9
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
  */
 public class GridView extends Application
 {
@@ -67,14 +68,16 @@ public void start(Stage stage)
 	this.controller = new GridController(this);
 	controller.initialize(null, null);
 
-	Canvas canvas = controller.getCanvas();
-	root.getChildren().add(canvas);
-	root.setPrefSize(canvas.getWidth(), canvas.getHeight());
+	Node display = controller.getDisplay();
+	root.getChildren().add(display);
+	root.setPrefSize(display.getLayoutBounds().getWidth(),
+			display.getLayoutBounds().getHeight());
 
 	/* Title the window. */
 	stage.setTitle(controller.getTitle());
 	/* Initiate the showing of the window using the Event Dispatch Thread. */
 	stage.show();
+	FXStartup.shown();
 	/* Allow the window to be resized after starting. */
 	stage.setMinWidth(stage.getWidth());
 	stage.setMinHeight(stage.getHeight());
@@ -0,0 +1,199 @@
+
+package edu.frontrange.csc240.a9.grid;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes an image in PNG form, one row at a time, so that the whole image need
+ * never be held in memory. The image is written as 8-bit RGB (the alpha of the
+ * pixels is ignored). The rows must be written in order, from the top, and there
+ * must be exactly as many rows as the height of the image.
+ * <p>
+ * The compressed data is written in chunks of a bounded size as it is produced.
+ * </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
+ */
+public class PngWriter implements Closeable
+{
+/**
+ * The size at which a chunk of compressed data is written out.
+ */
+private static final int CHUNK_SIZE = 1 << 16;
+
+/**
+ * The signature at the start of every PNG file.
+ */
+private static final byte[] SIGNATURE =
+		{ (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+/**
+ * The compressed data not yet written out as a chunk.
+ */
+private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+/**
+ * The compressor, writing into the compressed data.
+ */
+private final DeflaterOutputStream deflater;
+
+/**
+ * The compressor used by the stream (whose native memory is freed on close, as
+ * the stream does not free it for a compressor it is given).
+ */
+private final Deflater deflating;
+
+/**
+ * The height of the image.
+ */
+private final int height;
+
+/**
+ * The destination of the image.
+ */
+private final DataOutputStream out;
+
+/**
+ * One row as it is given to the compressor: a filter byte, then three bytes for
+ * each pixel.
+ */
+private final byte[] row;
+
+/**
+ * The count of rows written so far.
+ */
+private int rows;
+
+/**
+ * The width of the image.
+ */
+private final int width;
+
+/**
+ * Constructor: writes the signature and the header of the image.
+ *
+ * @param out			the destination of the image
+ * @param width			the width of the image (pixels)
+ * @param height		the height of the image (pixels)
+ * @throws IOException	if the destination cannot be written
+ */
+public PngWriter(OutputStream out, int width, int height) throws IOException
+{
+	if( width < 1 || height < 1 )
+		throw new IllegalArgumentException("Image must have a positive size");
+	this.out = new DataOutputStream(out);
+	this.width = width;
+	this.height = height;
+	row = new byte[1 + 3 * width];
+	deflating = new Deflater(Deflater.DEFAULT_COMPRESSION);
+	deflater = new DeflaterOutputStream(compressed, deflating, CHUNK_SIZE);
+
+	try
+	{
+		this.out.write(SIGNATURE);
+		ByteArrayOutputStream header = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream(header);
+		data.writeInt(width);
+		data.writeInt(height);
+		data.writeByte(8);					// bits per sample
+		data.writeByte(2);					// color type: RGB
+		data.writeByte(0);					// compression: deflate
+		data.writeByte(0);					// filtering: adaptive
+		data.writeByte(0);					// no interlace
+		writeChunk("IHDR", header.toByteArray(), header.size());
+	} catch( IOException | RuntimeException ex )
+	{
+		deflating.end();
+		throw ex;
+	}
+}
+
+/**
+ * Finish the image, and close the destination.
+ *
+ * @throws IOException	if the destination cannot be written, or if not all the
+ *						rows have been written
+ */
+@Override
+public void close() throws IOException
+{
+	try
+	{
+		if( rows != height )
+			throw new IOException("Only " + rows + " of " + height +
+					" rows were written");
+		deflater.finish();
+		flushChunk();
+		writeChunk("IEND", new byte[0], 0);
+	} finally
+	{
+		deflating.end();
+		out.close();
+	}
+}
+
+/**
+ * Write the next row of the image.
+ *
+ * @param pixels		array holding the pixels (as ARGB values)
+ * @param offset		index of the first pixel of the row in the array
+ * @throws IOException	if the destination cannot be written
+ */
+public void writeRow(int[] pixels, int offset) throws IOException
+{
+	if( rows == height )
+		throw new IllegalStateException("All the rows have been written");
+	row[0] = 0;								// filter: none
+	for( int x = 0, i = 1; x != width; ++x )
+	{
+		int pixel = pixels[offset + x];
+		row[i++] = (byte) (pixel >>> 16);
+		row[i++] = (byte) (pixel >>> 8);
+		row[i++] = (byte) pixel;
+	}
+	deflater.write(row);
+	++rows;
+	if( compressed.size() >= CHUNK_SIZE ) flushChunk();
+}
+
+/**
+ * Write out the compressed data produced so far as one chunk.
+ *
+ * @throws IOException	if the destination cannot be written
+ */
+private void flushChunk() throws IOException
+{
+	if( compressed.size() == 0 ) return;
+	writeChunk("IDAT", compressed.toByteArray(), compressed.size());
+	compressed.reset();
+}
+
+/**
+ * Write one chunk: its length, type, data and check value.
+ *
+ * @param type			the four-letter type of the chunk
+ * @param data			the data of the chunk
+ * @param length		the length of the data
+ * @throws IOException	if the destination cannot be written
+ */
+private void writeChunk(String type, byte[] data, int length) throws IOException
+{
+	byte[] name = type.getBytes(StandardCharsets.US_ASCII);
+	CRC32 crc = new CRC32();
+	crc.update(name);
+	crc.update(data, 0, length);
+	out.writeInt(length);
+	out.write(name);
+	out.write(data, 0, length);
+	out.writeInt((int) crc.getValue());
+}
+}
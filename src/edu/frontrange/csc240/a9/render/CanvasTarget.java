@@ -0,0 +1,179 @@
+
+package edu.frontrange.csc240.a9.render;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Draws on a JavaFX canvas, through its graphics context. The fill and stroke
+ * colors of the graphics context are set only when they change. Colors given as
+ * ARGB values are made into Color objects that are kept (in a small table, by
+ * value), so that a color used again is the same object. Runs of triangles of one
+ * color are filled as one path.
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
+ */
+public class CanvasTarget implements RenderTarget
+{
+/**
+ * The size of the table of colors made from ARGB values (a power of two).
+ */
+private static final int COLORS = 256;
+
+/**
+ * The canvas on which to draw.
+ */
+private final Canvas canvas;
+
+/**
+ * The table of colors made from ARGB values, indexed by a hash of the value.
+ */
+private final Color[] colors = new Color[COLORS];
+
+/**
+ * The ARGB values of the colors in the table.
+ */
+private final int[] colorValues = new int[COLORS];
+
+/**
+ * The fill color last set on the graphics context, or null if not known.
+ */
+private Color fill;
+
+/**
+ * The graphics context of the canvas.
+ */
+private final GraphicsContext g;
+
+/**
+ * The stroke color last set on the graphics context, or null if not known.
+ */
+private Color stroke;
+
+/**
+ * Constructor.
+ *
+ * @param canvas		the canvas on which to draw
+ */
+public CanvasTarget(Canvas canvas)
+{
+	this.canvas = canvas;
+	g = canvas.getGraphicsContext2D();
+}
+
+/**
+ * Clear out the previous drawing, and set the new size of the canvas.
+ *
+ * @param width			the width of the canvas
+ * @param height		the height of the canvas
+ */
+@Override
+public void begin(double width, double height)
+{
+	g.clearRect(0.0, 0.0, canvas.getWidth(), canvas.getHeight());
+	canvas.setWidth(width);
+	canvas.setHeight(height);
+	/* Others may have drawn on the canvas: the colors are set again. */
+	fill = null;
+	stroke = null;
+}
+
+@Override
+public void fillPolygon(double[] xPoints, double[] yPoints, int count, Color color)
+{
+	setFill(color);
+	g.fillPolygon(xPoints, yPoints, count);
+}
+
+@Override
+public void fillPolygon(double[] xPoints, double[] yPoints, int count, int argb)
+{
+	fillPolygon(xPoints, yPoints, count, color(argb));
+}
+
+@Override
+public void fillRect(double x, double y, double width, double height, Color color)
+{
+	setFill(color);
+	g.fillRect(x, y, width, height);
+}
+
+/**
+ * Fill the triangles as one path. Each triangle is added to the path going round
+ * in the same sense, so that (by the non-zero winding rule) the path covers every
+ * triangle, wherever they overlap.
+ */
+@Override
+public void fillTriangles(double[] xPoints, double[] yPoints, int count, int argb)
+{
+	setFill(color(argb));
+	g.beginPath();
+	for( int t = 0, i = 0; t != count; ++t, i += 3 )
+	{
+		double cross = (xPoints[i + 1] - xPoints[i]) * (yPoints[i + 2] - yPoints[i]) -
+				(xPoints[i + 2] - xPoints[i]) * (yPoints[i + 1] - yPoints[i]);
+		int second = cross < 0.0 ? i + 2 : i + 1;
+		int third = cross < 0.0 ? i + 1 : i + 2;
+		g.moveTo(xPoints[i], yPoints[i]);
+		g.lineTo(xPoints[second], yPoints[second]);
+		g.lineTo(xPoints[third], yPoints[third]);
+		g.closePath();
+	}
+	g.fill();
+}
+
+/**
+ * @return				the canvas on which this draws
+ */
+public Canvas getCanvas()
+{
+	return canvas;
+}
+
+@Override
+public void strokeLine(double x0, double y0, double x1, double y1, Color color)
+{
+	if( !color.equals(stroke) )
+	{
+		g.setStroke(color);
+		stroke = color;
+	}
+	g.strokeLine(x0, y0, x1, y1);
+}
+
+/**
+ * The Color of an ARGB value, from the table if it has been made before.
+ *
+ * @param argb			the color (ARGB)
+ * @return				the Color
+ */
+private Color color(int argb)
+{
+	int index = (argb * 0x9E3779B9) >>> 24;
+	Color color = colors[index];
+	if( color == null || colorValues[index] != argb )
+	{
+		color = Color.rgb(argb >>> 16 & 0xFF, argb >>> 8 & 0xFF, argb & 0xFF,
+				(argb >>> 24) / 255.0);
+		colors[index] = color;
+		colorValues[index] = argb;
+	}
+	return color;
+}
+
+/**
+ * Set the fill color of the graphics context, if it is not already that color.
+ *
+ * @param color			the fill color
+ */
+private void setFill(Color color)
+{
+	if( !color.equals(fill) )
+	{
+		g.setFill(color);
+		fill = color;
+	}
+}
+}
@@ -0,0 +1,126 @@
+
+package edu.frontrange.csc240.a9.render;
+
+import javafx.scene.paint.Color;
+
+/**
+ * A target that draws nothing, but counts what would have been drawn: the
+ * drawings begun, the primitives (polygons, rectangles and lines), the vertices of
+ * those primitives, and the operations (each of which may draw several
+ * primitives). It is used to measure the work done by a model in
+ * drawing, without the cost of the drawing itself.
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
+ */
+public class CountingTarget implements RenderTarget
+{
+/**
+ * Count of the drawings begun.
+ */
+private long drawings;
+
+/**
+ * Count of the operations that draw.
+ */
+private long operations;
+
+/**
+ * Count of the primitives drawn.
+ */
+private long primitives;
+
+/**
+ * Count of the vertices of the primitives drawn.
+ */
+private long vertices;
+
+@Override
+public void begin(double width, double height)
+{
+	++drawings;
+}
+
+@Override
+public void fillPolygon(double[] xPoints, double[] yPoints, int count, Color color)
+{
+	++operations;
+	++primitives;
+	vertices += count;
+}
+
+@Override
+public void fillPolygon(double[] xPoints, double[] yPoints, int count, int argb)
+{
+	++operations;
+	++primitives;
+	vertices += count;
+}
+
+@Override
+public void fillTriangles(double[] xPoints, double[] yPoints, int count, int argb)
+{
+	++operations;
+	primitives += count;
+	vertices += 3L * count;
+}
+
+@Override
+public void fillRect(double x, double y, double width, double height, Color color)
+{
+	++operations;
+	++primitives;
+	vertices += 4;
+}
+
+/**
+ * @return				count of the drawings begun
+ */
+public long getDrawings()
+{
+	return drawings;
+}
+
+/**
+ * @return				count of the operations that draw
+ */
+public long getOperations()
+{
+	return operations;
+}
+
+/**
+ * @return				count of the primitives drawn
+ */
+public long getPrimitives()
+{
+	return primitives;
+}
+
+/**
+ * @return				count of the vertices of the primitives drawn
+ */
+public long getVertices()
+{
+	return vertices;
+}
+
+/**
+ * Set all the counts to zero.
+ */
+public void reset()
+{
+	drawings = 0;
+	operations = 0;
+	primitives = 0;
+	vertices = 0;
+}
+
+@Override
+public void strokeLine(double x0, double y0, double x1, double y1, Color color)
+{
+	++operations;
+	++primitives;
+	vertices += 2;
+}
+}
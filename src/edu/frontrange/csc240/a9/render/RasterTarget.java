@@ -0,0 +1,328 @@
+
+package edu.frontrange.csc240.a9.render;
+
+import java.util.Arrays;
+import javafx.scene.paint.Color;
+
+/**
+ * Draws into an array of pixels in memory, held as ARGB values (not premultiplied),
+ * one row after another. No part of the JavaFX platform is needed, so that drawing
+ * can be done (and measured, or saved as an image) without a display.
+ * <p>
+ * A pixel is covered by a filled shape if its center is within the shape, so that
+ * shapes that share an edge never both cover the same pixel. A line covers one
+ * pixel across its width: a horizontal or vertical line drawn through the centers of
+ * a row or column of pixels covers exactly those pixels, as it does on a canvas.
+ * Colors that are not opaque are blended over what has already been drawn. </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
+ */
+public class RasterTarget implements RenderTarget
+{
+/**
+ * The color (ARGB) to which the pixels are cleared.
+ */
+private final int background;
+
+/**
+ * The color last used, and its ARGB value, so that the conversion is made only
+ * when the color changes.
+ */
+private Color color;
+
+/**
+ * The ARGB value of the color last used.
+ */
+private int colorValue;
+
+/**
+ * The x-coordinates of the crossings of the edges of a polygon with a row of
+ * pixels (kept, so as not to be created for every polygon).
+ */
+private double[] crossings = new double[8];
+
+/**
+ * The direction (+1 down, -1 up) of the edge of each crossing.
+ */
+private int[] directions = new int[8];
+
+/**
+ * The height of the surface (pixels).
+ */
+private int height;
+
+/**
+ * The pixels, row after row.
+ */
+private int[] pixels = new int[0];
+
+/**
+ * The width of the surface (pixels).
+ */
+private int width;
+
+/**
+ * Constructor.
+ *
+ * @param background	the color (ARGB) to which the pixels are cleared
+ */
+public RasterTarget(int background)
+{
+	this.background = background;
+}
+
+/**
+ * Set the size of the surface, and set every pixel to the background. The array of
+ * pixels is made again only if the size has changed.
+ *
+ * @param width			the width of the surface (rounded up to whole pixels)
+ * @param height		the height of the surface (rounded up to whole pixels)
+ */
+@Override
+public void begin(double width, double height)
+{
+	int w = (int) Math.ceil(Math.max(0.0, width));
+	int h = (int) Math.ceil(Math.max(0.0, height));
+	if( (long) w * h > Integer.MAX_VALUE - 8 )
+		throw new IllegalArgumentException("Surface too large: " + w + " x " + h);
+	if( w * h != pixels.length ) pixels = new int[w * h];
+	this.width = w;
+	this.height = h;
+	Arrays.fill(pixels, background);
+}
+
+@Override
+public void fillPolygon(double[] xPoints, double[] yPoints, int count, Color color)
+{
+	fillPolygon(xPoints, yPoints, count, argb(color));
+}
+
+@Override
+public void fillPolygon(double[] xPoints, double[] yPoints, int count, int argb)
+{
+	fillPolygon(xPoints, yPoints, 0, count, argb);
+}
+
+@Override
+public void fillRect(double x, double y, double width, double height, Color color)
+{
+	int argb = argb(color);
+	int firstRow = (int) Math.max(0.0, Math.ceil(y - 0.5));
+	int lastRow = (int) Math.min(this.height - 1.0, Math.ceil(y + height - 0.5) - 1.0);
+	for( int row = firstRow; row <= lastRow; ++row ) span(row, x, x + width, argb);
+}
+
+@Override
+public void fillTriangles(double[] xPoints, double[] yPoints, int count, int argb)
+{
+	for( int t = 0; t != count; ++t ) fillPolygon(xPoints, yPoints, 3 * t, 3, argb);
+}
+
+/**
+ * @return				the height of the surface (pixels)
+ */
+public int getHeight()
+{
+	return height;
+}
+
+/**
+ * Get the value of a pixel.
+ *
+ * @param x				the column of the pixel
+ * @param y				the row of the pixel
+ * @return				the color of the pixel (ARGB)
+ */
+public int getPixel(int x, int y)
+{
+	if( x < 0 || x >= width || y < 0 || y >= height )
+		throw new IndexOutOfBoundsException("Pixel (" + x + ", " + y +
+				") is outside the surface");
+	return pixels[y * width + x];
+}
+
+/**
+ * The pixels of the surface, row after row. This is the array itself (not a copy),
+ * and is replaced when the size of the surface changes.
+ *
+ * @return				the pixels (ARGB values)
+ */
+public int[] getPixels()
+{
+	return pixels;
+}
+
+/**
+ * @return				the width of the surface (pixels)
+ */
+public int getWidth()
+{
+	return width;
+}
+
+@Override
+public void strokeLine(double x0, double y0, double x1, double y1, Color color)
+{
+	/* Step along the longer direction of the line one pixel at a time, covering
+	   the pixel in which each step falls. */
+	int argb = argb(color);
+	double dx = x1 - x0;
+	double dy = y1 - y0;
+	double steps = Math.ceil(Math.max(Math.abs(dx), Math.abs(dy)));
+	if( !(steps < Integer.MAX_VALUE) ) return;
+	for( int i = 0; i <= (int) steps; ++i )
+	{
+		double t = steps == 0.0 ? 0.0 : i / steps;
+		plot((long) Math.floor(x0 + t * dx), (long) Math.floor(y0 + t * dy), argb);
+	}
+}
+
+/**
+ * The ARGB value of a color, converted only if the color has changed since last
+ * used.
+ *
+ * @param color			the color
+ * @return				the ARGB value
+ */
+private int argb(Color color)
+{
+	if( !color.equals(this.color) )
+	{
+		this.color = color;
+		colorValue = (int) Math.round(color.getOpacity() * 255.0) << 24 |
+				(int) Math.round(color.getRed() * 255.0) << 16 |
+				(int) Math.round(color.getGreen() * 255.0) << 8 |
+				(int) Math.round(color.getBlue() * 255.0);
+	}
+	return colorValue;
+}
+
+/**
+ * Fill a polygon whose points are a part of the given arrays.
+ *
+ * @param xPoints		the x-coordinates of the points
+ * @param yPoints		the y-coordinates of the points
+ * @param offset		the index in the arrays of the first point
+ * @param count			the number of points
+ * @param argb			the color with which to fill (ARGB)
+ */
+private void fillPolygon(double[] xPoints, double[] yPoints, int offset, int count,
+		int argb)
+{
+	if( count < 3 ) return;
+	if( count > crossings.length )
+	{
+		crossings = new double[count];
+		directions = new int[count];
+	}
+
+	/* The rows of pixels whose centers may be within the polygon. */
+	double minimum = Double.POSITIVE_INFINITY;
+	double maximum = Double.NEGATIVE_INFINITY;
+	for( int i = offset; i != offset + count; ++i )
+	{
+		minimum = Math.min(minimum, yPoints[i]);
+		maximum = Math.max(maximum, yPoints[i]);
+	}
+	int firstRow = (int) Math.max(0.0, Math.ceil(minimum - 0.5));
+	int lastRow = (int) Math.min(height - 1.0, Math.ceil(maximum - 0.5) - 1.0);
+
+	for( int y = firstRow; y <= lastRow; ++y )
+	{
+		/* Find where each edge crosses the line through the centers of the row. */
+		double center = y + 0.5;
+		int found = 0;
+		for( int i = offset, j = offset + count - 1; i != offset + count; j = i++ )
+		{
+			boolean below = yPoints[i] <= center;
+			if( below == (yPoints[j] <= center) ) continue;
+			double x = xPoints[j] + (center - yPoints[j]) *
+					(xPoints[i] - xPoints[j]) / (yPoints[i] - yPoints[j]);
+			/* Keep the crossings in order of x (there are few of them). */
+			int k = found++;
+			while( k > 0 && crossings[k - 1] > x )
+			{
+				crossings[k] = crossings[k - 1];
+				directions[k] = directions[k - 1];
+				--k;
+			}
+			crossings[k] = x;
+			directions[k] = below ? -1 : 1;
+		}
+
+		/* Fill between crossings where the winding number is not zero. */
+		int winding = 0;
+		for( int k = 0; k < found - 1; ++k )
+		{
+			winding += directions[k];
+			if( winding != 0 ) span(y, crossings[k], crossings[k + 1], argb);
+		}
+	}
+}
+
+/**
+ * Place a color over a pixel, blending it with the pixel if it is not opaque.
+ *
+ * @param index			the index of the pixel
+ * @param argb			the color (ARGB)
+ */
+private void paint(int index, int argb)
+{
+	int alpha = argb >>> 24;
+	if( alpha == 0xFF )
+	{
+		pixels[index] = argb;
+		return;
+	}
+	if( alpha == 0 ) return;
+
+	/* Source over destination, for colors that are not premultiplied. */
+	int under = pixels[index];
+	double a = alpha / 255.0;
+	double b = (under >>> 24) / 255.0 * (1.0 - a);
+	double out = a + b;
+	int result = (int) Math.round(out * 255.0) << 24;
+	for( int shift = 0; shift <= 16; shift += 8 )
+	{
+		double value = (((argb >>> shift) & 0xFF) * a +
+				((under >>> shift) & 0xFF) * b) / out;
+		result |= (int) Math.round(value) << shift;
+	}
+	pixels[index] = result;
+}
+
+/**
+ * Paint one pixel, if it is on the surface.
+ *
+ * @param x				the column of the pixel
+ * @param y				the row of the pixel
+ * @param argb			the color (ARGB)
+ */
+private void plot(long x, long y, int argb)
+{
+	if( x >= 0 && x < width && y >= 0 && y < height )
+		paint((int) y * width + (int) x, argb);
+}
+
+/**
+ * Paint the pixels of a row whose centers are between two x-coordinates (from the
+ * first, inclusive, to the second, exclusive).
+ *
+ * @param y				the row
+ * @param from			the x-coordinate at which to start
+ * @param to			the x-coordinate at which to stop
+ * @param argb			the color (ARGB)
+ */
+private void span(int y, double from, double to, int argb)
+{
+	int first = (int) Math.max(0.0, Math.ceil(from - 0.5));
+	int last = (int) Math.min(width - 1.0, Math.ceil(to - 0.5) - 1.0);
+	if( first > last ) return;
+	int start = y * width;
+	if( argb >>> 24 == 0xFF )
+		Arrays.fill(pixels, start + first, start + last + 1, argb);
+	else
+		for( int x = first; x <= last; ++x ) paint(start + x, argb);
+}
+}
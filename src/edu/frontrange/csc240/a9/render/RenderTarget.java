@@ -0,0 +1,86 @@
+
+package edu.frontrange.csc240.a9.render;
+
+import javafx.scene.paint.Color;
+
+/**
+ * A surface on which the models draw: a canvas, an array of pixels in memory, or a
+ * sink that only counts what is drawn. The models draw only through this interface,
+ * so that they can be drawn (and their drawing measured) without a display, and
+ * without the JavaFX platform running, except where the target itself needs it.
+ * <p>
+ * The coordinates are in pixels, with (0, 0) at the top left, as for a canvas. A
+ * drawing starts with a call on begin, which sets the size of the surface and
+ * clears it. Each primitive is drawn in a color given with it, either as a Color,
+ * or as an ARGB value (not premultiplied), for callers that hold their colors in
+ * that form. </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		3.1, 2026-10-18, CSC-240 Assignment 9
+ */
+public interface RenderTarget
+{
+/**
+ * Start a new drawing: set the size of the surface, and clear it.
+ *
+ * @param width			the width of the surface (pixels)
+ * @param height		the height of the surface (pixels)
+ */
+void begin(double width, double height);
+
+/**
+ * Fill a polygon, given by the coordinates of its points.
+ *
+ * @param xPoints		the x-coordinates of the points
+ * @param yPoints		the y-coordinates of the points
+ * @param count			the number of points
+ * @param color			the color with which to fill
+ */
+void fillPolygon(double[] xPoints, double[] yPoints, int count, Color color);
+
+/**
+ * Fill a polygon, given by the coordinates of its points, with a color given as an
+ * ARGB value.
+ *
+ * @param xPoints		the x-coordinates of the points
+ * @param yPoints		the y-coordinates of the points
+ * @param count			the number of points
+ * @param argb			the color with which to fill (ARGB)
+ */
+void fillPolygon(double[] xPoints, double[] yPoints, int count, int argb);
+
+/**
+ * Fill a rectangle.
+ *
+ * @param x				the x-coordinate of the left edge
+ * @param y				the y-coordinate of the top edge
+ * @param width			the width of the rectangle
+ * @param height		the height of the rectangle
+ * @param color			the color with which to fill
+ */
+void fillRect(double x, double y, double width, double height, Color color);
+
+/**
+ * Fill a number of triangles, all of the same color, as one shape (where they
+ * overlap, the shape is their union). The points of each triangle are three
+ * consecutive points of the arrays. This allows a target to draw runs of triangles
+ * of the same color with one operation.
+ *
+ * @param xPoints		the x-coordinates of the points
+ * @param yPoints		the y-coordinates of the points
+ * @param count			the number of triangles
+ * @param argb			the color with which to fill (ARGB)
+ */
+void fillTriangles(double[] xPoints, double[] yPoints, int count, int argb);
+
+/**
+ * Draw a line, one pixel wide, from one point to another.
+ *
+ * @param x0			the x-coordinate of the start of the line
+ * @param y0			the y-coordinate of the start of the line
+ * @param x1			the x-coordinate of the end of the line
+ * @param y1			the y-coordinate of the end of the line
+ * @param color			the color of the line
+ */
+void strokeLine(double x0, double y0, double x1, double y1, Color color);
+}
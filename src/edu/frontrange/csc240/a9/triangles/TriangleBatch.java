@@ -0,0 +1,491 @@
+
+package edu.frontrange.csc240.a9.triangles;
+
+import edu.frontrange.csc240.a9.render.RenderTarget;
+import java.util.Arrays;
+import javafx.scene.paint.Color;
+
+/**
+ * A collection of triangles, held in parallel arrays of primitive values rather
+ * than as objects: the coordinates of the points (as float), the areas (as double),
+ * and the colors (as opaque ARGB values). A triangle takes 36 bytes, and drawing
+ * the triangles walks through the arrays in order, with no object for each
+ * triangle to be found.
+ * <p>
+ * The triangles are identified by index, from zero to one less than the size. The
+ * batch grows as triangles are added. Only the classes of this package (which make
+ * the triangles) change a batch: to any other, a batch is read-only, so that the
+ * triangles of a scene cannot be changed while they are drawn. </p>
+ * <p>
+ * When triangles are drawn, each run of triangles of the same color that come one
+ * after the other in the order of drawing is given to the target at once (as with
+ * a palette of few colors), so that the target may fill them with one operation.
+ * Only such runs are joined: drawing triangles out of order would change which of
+ * them is seen where they overlap. </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
+ */
+public class TriangleBatch
+{
+/**
+ * Number of points in a triangle.
+ */
+private static final int POINTS = RandomTriangle.TRIANGLE_POINTS;
+
+/**
+ * The most triangles given to a target at once (a longer run of the same color is
+ * given in parts).
+ */
+private static final int RUN_LIMIT = 1024;
+
+/**
+ * The areas of the triangles.
+ */
+private double[] areas;
+
+/**
+ * The colors of the triangles (ARGB).
+ */
+private int[] colors;
+
+/**
+ * The number of triangles held.
+ */
+private int size;
+
+/**
+ * The x-coordinates of the points, three for each triangle.
+ */
+private float[] xs;
+
+/**
+ * The y-coordinates of the points, three for each triangle.
+ */
+private float[] ys;
+
+/**
+ * Constructor: an empty batch.
+ *
+ * @param capacity		the number of triangles for which there is room at first
+ */
+public TriangleBatch(int capacity)
+{
+	if( capacity < 0 || capacity > Integer.MAX_VALUE / POINTS )
+		throw new IllegalArgumentException("Capacity out of range: " + capacity);
+	areas = new double[capacity];
+	colors = new int[capacity];
+	xs = new float[capacity * POINTS];
+	ys = new float[capacity * POINTS];
+}
+
+/**
+ * Constructor: a copy of another batch.
+ *
+ * @param other			the batch to copy
+ */
+public TriangleBatch(TriangleBatch other)
+{
+	size = other.size;
+	areas = Arrays.copyOf(other.areas, size);
+	colors = Arrays.copyOf(other.colors, size);
+	xs = Arrays.copyOf(other.xs, size * POINTS);
+	ys = Arrays.copyOf(other.ys, size * POINTS);
+}
+
+/**
+ * Draw the triangles, in order, on the given target.
+ *
+ * @param target		the target on which to draw
+ */
+public void draw(RenderTarget target)
+{
+	draw(target, 1.0, 1.0);
+}
+
+/**
+ * Draw the triangles, in order, on the given target, with their coordinates
+ * scaled (for example, from the size for which they were made to the size of the
+ * target).
+ *
+ * @param target		the target on which to draw
+ * @param scaleX		the factor by which the x-coordinates are scaled
+ * @param scaleY		the factor by which the y-coordinates are scaled
+ */
+public void draw(RenderTarget target, double scaleX, double scaleY)
+{
+	drawRuns(target, scaleX, scaleY, null, 0, size);
+}
+
+/**
+ * Draw some of the triangles, in the order given, on the given target, with their
+ * coordinates scaled.
+ *
+ * @param target		the target on which to draw
+ * @param scaleX		the factor by which the x-coordinates are scaled
+ * @param scaleY		the factor by which the y-coordinates are scaled
+ * @param indices		the indices of the triangles to draw
+ * @param count			the number of indices used
+ */
+public void draw(RenderTarget target, double scaleX, double scaleY, int[] indices,
+		int count)
+{
+	draw(target, scaleX, scaleY, indices, 0, count);
+}
+
+/**
+ * Draw some of the triangles, in the order given by a part of an array of indices
+ * (or, if there is no array, a range of the triangles), on the given target, with
+ * their coordinates scaled. A drawing may be made a part at a time in this way.
+ *
+ * @param target		the target on which to draw
+ * @param scaleX		the factor by which the x-coordinates are scaled
+ * @param scaleY		the factor by which the y-coordinates are scaled
+ * @param indices		the indices of the triangles to draw, or null to draw the
+ *						triangles themselves from the first to the last
+ * @param from			the first of the indices (or triangles) to draw
+ * @param to			one beyond the last of the indices (or triangles) to draw
+ */
+public void draw(RenderTarget target, double scaleX, double scaleY, int[] indices,
+		int from, int to)
+{
+	if( indices == null )
+	{
+		if( from < to )
+		{
+			checkIndex(from);
+			checkIndex(to - 1);
+		}
+	} else
+		for( int k = from; k < to; ++k ) checkIndex(indices[k]);
+	drawRuns(target, scaleX, scaleY, indices, from, to);
+}
+
+/**
+ * Get a triangle as an object of its own (made anew for each call).
+ *
+ * @param index			the index of the triangle
+ * @return				the triangle
+ */
+public RandomTriangle get(int index)
+{
+	checkIndex(index);
+	double[] xPoints = new double[POINTS];
+	double[] yPoints = new double[POINTS];
+	for( int i = 0; i != POINTS; ++i )
+	{
+		xPoints[i] = getX(index, i);
+		yPoints[i] = getY(index, i);
+	}
+	int argb = colors[index];
+	return new RandomTriangle(xPoints, yPoints, areas[index],
+			Color.rgb(argb >>> 16 & 0xFF, argb >>> 8 & 0xFF, argb & 0xFF));
+}
+
+/**
+ * @param index			the index of a triangle
+ * @return				the area of that triangle
+ */
+public double getArea(int index)
+{
+	checkIndex(index);
+	return areas[index];
+}
+
+/**
+ * @param index			the index of a triangle
+ * @return				the color of that triangle (ARGB)
+ */
+public int getColor(int index)
+{
+	checkIndex(index);
+	return colors[index];
+}
+
+/**
+ * The number of bytes taken by the arrays holding the triangles (including the
+ * room not yet used), not counting the headers of the arrays.
+ *
+ * @return				the number of bytes
+ */
+public long getMemorySize()
+{
+	return (long) areas.length * Double.BYTES + (long) colors.length * Integer.BYTES +
+			(long) (xs.length + ys.length) * Float.BYTES;
+}
+
+/**
+ * @param index			the index of a triangle
+ * @param point			the index of a point of that triangle (0, 1 or 2)
+ * @return				the x-coordinate of that point
+ */
+public float getX(int index, int point)
+{
+	checkIndex(index);
+	return xs[index * POINTS + point];
+}
+
+/**
+ * @param index			the index of a triangle
+ * @param point			the index of a point of that triangle (0, 1 or 2)
+ * @return				the y-coordinate of that point
+ */
+public float getY(int index, int point)
+{
+	checkIndex(index);
+	return ys[index * POINTS + point];
+}
+
+/**
+ * @return				the number of triangles held
+ */
+public int size()
+{
+	return size;
+}
+
+/**
+ * Add a triangle at the end of the batch.
+ *
+ * @param xPoints		the x-coordinates of the three points
+ * @param yPoints		the y-coordinates of the three points
+ * @param area			the area of the triangle
+ * @param argb			the color of the triangle (ARGB)
+ */
+void add(double[] xPoints, double[] yPoints, double area, int argb)
+{
+	if( size == areas.length ) grow();
+	int base = size * POINTS;
+	for( int i = 0; i != POINTS; ++i )
+	{
+		xs[base + i] = (float) xPoints[i];
+		ys[base + i] = (float) yPoints[i];
+	}
+	areas[size] = area;
+	colors[size] = argb;
+	++size;
+}
+
+/**
+ * Add a triangle of another batch at the end of this batch.
+ *
+ * @param other			the other batch
+ * @param index			the index of the triangle in the other batch
+ */
+void add(TriangleBatch other, int index)
+{
+	other.checkIndex(index);
+	if( size == areas.length ) grow();
+	System.arraycopy(other.xs, index * POINTS, xs, size * POINTS, POINTS);
+	System.arraycopy(other.ys, index * POINTS, ys, size * POINTS, POINTS);
+	areas[size] = other.areas[index];
+	colors[size] = other.colors[index];
+	++size;
+}
+
+/**
+ * Remove all the triangles (the room for them is kept).
+ */
+void clear()
+{
+	size = 0;
+}
+
+/**
+ * Set the number of triangles held, making room for them if needed. Triangles
+ * added by this are all zero until they are set.
+ *
+ * @param size			the number of triangles
+ */
+void resize(int size)
+{
+	if( size < 0 || size > Integer.MAX_VALUE / POINTS )
+		throw new IllegalArgumentException("Size out of range: " + size);
+	if( size > areas.length )
+	{
+		areas = Arrays.copyOf(areas, size);
+		colors = Arrays.copyOf(colors, size);
+		xs = Arrays.copyOf(xs, size * POINTS);
+		ys = Arrays.copyOf(ys, size * POINTS);
+	}
+	if( size > this.size )
+	{
+		Arrays.fill(areas, this.size, size, 0.0);
+		Arrays.fill(colors, this.size, size, 0);
+		Arrays.fill(xs, this.size * POINTS, size * POINTS, 0.0F);
+		Arrays.fill(ys, this.size * POINTS, size * POINTS, 0.0F);
+	}
+	this.size = size;
+}
+
+/**
+ * Replace a triangle. Different triangles may be replaced by different threads
+ * at the same time (but not while the batch is changed in any other way).
+ *
+ * @param index			the index of the triangle
+ * @param xPoints		the x-coordinates of the three points
+ * @param yPoints		the y-coordinates of the three points
+ * @param area			the area of the triangle
+ * @param argb			the color of the triangle (ARGB)
+ */
+void set(int index, double[] xPoints, double[] yPoints, double area, int argb)
+{
+	checkIndex(index);
+	int base = index * POINTS;
+	for( int i = 0; i != POINTS; ++i )
+	{
+		xs[base + i] = (float) xPoints[i];
+		ys[base + i] = (float) yPoints[i];
+	}
+	areas[index] = area;
+	colors[index] = argb;
+}
+
+/**
+ * Sort the triangles from largest to smallest (by area), so that all triangles can
+ * be seen when they are drawn in order. Triangles of the same area keep their
+ * order.
+ * <p>
+ * The sort is of primitive keys: each key holds the area (as a float, whose bits
+ * are in the same order as its value, as the area is not negative) above the index
+ * of the triangle. The few triangles whose areas are the same as a float are then
+ * put in order by their full areas, and the arrays are rearranged in that order.
+ * </p>
+ */
+void sort()
+{
+	sort(0, size);
+}
+
+/**
+ * Sort a range of the triangles from largest to smallest, as sort does for all of
+ * them. The triangles outside the range are not moved.
+ *
+ * @param from			the index of the first triangle to sort
+ * @param to			one beyond the index of the last triangle to sort
+ */
+void sort(int from, int to)
+{
+	if( from < 0 || to > size || from > to )
+		throw new IndexOutOfBoundsException("Range " + from + " to " + to +
+				" is outside a batch of " + size);
+	int count = to - from;
+
+	/* Keys in increasing order are of increasing area, and (for the same area) of
+	   decreasing index, so that taken from the end, they are in the order
+	   wanted. */
+	long[] keys = new long[count];
+	for( int t = 0; t != count; ++t )
+		keys[t] = (long) Float.floatToIntBits((float) areas[from + t]) << 32 |
+				(0xFFFFFFFFL - t);
+	Arrays.sort(keys);
+	int[] order = new int[count];
+	for( int t = 0; t != count; ++t )
+		order[t] = from + (int) (0xFFFFFFFFL - (keys[count - 1 - t] & 0xFFFFFFFFL));
+
+	/* Within each run of the same key area, an insertion sort by the full area
+	   (the runs are short, and those of the same full area keep their order). */
+	for( int t = 1; t < count; ++t )
+	{
+		int index = order[t];
+		int k = t;
+		while( k > 0 && keys[count - k] >>> 32 == keys[count - 1 - t] >>> 32 &&
+				areas[order[k - 1]] < areas[index] )
+		{
+			order[k] = order[k - 1];
+			--k;
+		}
+		order[k] = index;
+	}
+
+	double[] sortedAreas = new double[count];
+	int[] sortedColors = new int[count];
+	float[] sortedXs = new float[count * POINTS];
+	float[] sortedYs = new float[count * POINTS];
+	for( int t = 0; t != count; ++t )
+	{
+		int source = order[t];
+		sortedAreas[t] = areas[source];
+		sortedColors[t] = colors[source];
+		System.arraycopy(xs, source * POINTS, sortedXs, t * POINTS, POINTS);
+		System.arraycopy(ys, source * POINTS, sortedYs, t * POINTS, POINTS);
+	}
+	System.arraycopy(sortedAreas, 0, areas, from, count);
+	System.arraycopy(sortedColors, 0, colors, from, count);
+	System.arraycopy(sortedXs, 0, xs, from * POINTS, count * POINTS);
+	System.arraycopy(sortedYs, 0, ys, from * POINTS, count * POINTS);
+}
+
+/**
+ * Check that an index is of a triangle held.
+ *
+ * @param index			the index
+ */
+private void checkIndex(int index)
+{
+	if( index < 0 || index >= size )
+		throw new IndexOutOfBoundsException("Triangle " + index +
+				" is outside a batch of " + size);
+}
+
+/**
+ * Draw triangles in order, each run of the same color at once. A run of one
+ * triangle is drawn as a polygon.
+ *
+ * @param target		the target on which to draw
+ * @param scaleX		the factor by which the x-coordinates are scaled
+ * @param scaleY		the factor by which the y-coordinates are scaled
+ * @param indices		the indices of the triangles to draw, or null to draw the
+ *						triangles themselves
+ * @param from			the first of the indices (or triangles) to draw
+ * @param to			one beyond the last of the indices (or triangles) to draw
+ */
+private void drawRuns(RenderTarget target, double scaleX, double scaleY,
+		int[] indices, int from, int to)
+{
+	double[] xPoints = new double[POINTS];
+	double[] yPoints = new double[POINTS];
+	int k = from;
+	while( k < to )
+	{
+		int color = colors[indices == null ? k : indices[k]];
+		int run = 0;
+		do
+		{
+			int t = indices == null ? k : indices[k];
+			if( colors[t] != color ) break;
+			if( (run + 1) * POINTS > xPoints.length )
+			{
+				xPoints = Arrays.copyOf(xPoints, 2 * xPoints.length);
+				yPoints = Arrays.copyOf(yPoints, 2 * yPoints.length);
+			}
+			for( int i = 0, base = t * POINTS; i != POINTS; ++i )
+			{
+				xPoints[run * POINTS + i] = xs[base + i] * scaleX;
+				yPoints[run * POINTS + i] = ys[base + i] * scaleY;
+			}
+			++run;
+			++k;
+		} while( k != to && run != RUN_LIMIT );
+		if( run == 1 )
+			target.fillPolygon(xPoints, yPoints, POINTS, color);
+		else
+			target.fillTriangles(xPoints, yPoints, run, color);
+	}
+}
+
+/**
+ * Make room for more triangles: half as many again, and at least one more.
+ */
+private void grow()
+{
+	long wanted = Math.max(size + 1L, size + (size >> 1));
+	int capacity = (int) Math.min(wanted, Integer.MAX_VALUE / POINTS);
+	if( capacity <= size )
+		throw new IllegalStateException("Too many triangles for one batch");
+	areas = Arrays.copyOf(areas, capacity);
+	colors = Arrays.copyOf(colors, capacity);
+	xs = Arrays.copyOf(xs, capacity * POINTS);
+	ys = Arrays.copyOf(ys, capacity * POINTS);
+}
+}
@@ -0,0 +1,351 @@
+
+package edu.frontrange.csc240.a9.triangles;
+
+import java.util.Arrays;
+
+/**
+ * Finds which triangles of a batch need to be drawn on a surface of a given size,
+ * so that no work is spent on those that cannot be seen: those entirely off the
+ * surface, and those entirely hidden by triangles drawn after them.
+ * <p>
+ * The test for hidden triangles is conservative: a triangle is dropped only if it
+ * is certainly hidden. The surface is divided into a grid of tiles, and the
+ * triangles are taken from the front (the last drawn) to the back. A tile is
+ * marked as covered once it lies wholly inside (with a margin of a pixel, for the
+ * smoothing of edges) one of the triangles taken so far. A triangle is hidden if
+ * every tile touched by its bounding box (within the surface) is already covered.
+ * </p>
+ * <p>
+ * The counts of the triangles dropped are kept for the last culling done. A
+ * culling may be done at once, or a part at a time (start, then advance until
+ * complete). A culler is not safe for use by more than one thread at a time.
+ * </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
+ */
+public class TriangleCuller
+{
+/**
+ * The margin (pixels) by which a tile is enlarged when testing whether it is
+ * covered, to allow for the smoothing of the edges of triangles.
+ */
+private static final double MARGIN = 1.0;
+
+/**
+ * Number of tiles each way across the surface.
+ */
+private static final int TILES = 64;
+
+/**
+ * The triangles being culled, or null if the culling is complete.
+ */
+private TriangleBatch batch;
+
+/**
+ * The tiles that are wholly covered, row after row.
+ */
+private final boolean[] covered = new boolean[TILES * TILES];
+
+/**
+ * The height of the surface.
+ */
+private double height;
+
+/**
+ * Count of the triangles found hidden in the last culling.
+ */
+private int hidden;
+
+/**
+ * The position in visible at which the index of the next triangle to be drawn is
+ * placed (counting down).
+ */
+private int next;
+
+/**
+ * Count of the triangles found off the surface in the last culling.
+ */
+private int offSurface;
+
+/**
+ * The next triangle to be taken (counting down from the last).
+ */
+private int position;
+
+/**
+ * The factor by which the x-coordinates are scaled.
+ */
+private double scaleX;
+
+/**
+ * The factor by which the y-coordinates are scaled.
+ */
+private double scaleY;
+
+/**
+ * The height of a tile.
+ */
+private double tileHeight;
+
+/**
+ * The width of a tile.
+ */
+private double tileWidth;
+
+/**
+ * Count of tiles not yet covered.
+ */
+private int uncovered;
+
+/**
+ * The indices of the triangles to be drawn, in the order of drawing.
+ */
+private int[] visible = new int[0];
+
+/**
+ * Count of the triangles to be drawn.
+ */
+private int visibleCount;
+
+/**
+ * The width of the surface.
+ */
+private double width;
+
+/**
+ * Find the triangles of a batch (drawn in order, with their coordinates scaled)
+ * that can be seen on a surface of the given size.
+ *
+ * @param batch			the triangles
+ * @param scaleX		the factor by which the x-coordinates are scaled
+ * @param scaleY		the factor by which the y-coordinates are scaled
+ * @param width			the width of the surface
+ * @param height		the height of the surface
+ */
+public void cull(TriangleBatch batch, double scaleX, double scaleY, double width,
+		double height)
+{
+	start(batch, scaleX, scaleY, width, height);
+	advance(batch.size());
+}
+
+/**
+ * Go on with the culling started by start: the next triangles, from the front to
+ * the back, are each found to be off the surface, hidden, or to be drawn. In this
+ * way a culling may be done a part at a time. The batch must not be changed until
+ * the culling is complete.
+ *
+ * @param count			the most triangles to take
+ * @return				true if the culling is complete (and its results may be
+ *						used)
+ */
+public boolean advance(int count)
+{
+	if( batch == null ) return true;
+	double[] x = new double[RandomTriangle.TRIANGLE_POINTS];
+	double[] y = new double[RandomTriangle.TRIANGLE_POINTS];
+
+	/* From the front (the last drawn) to the back. The indices of the triangles
+	   to be drawn are collected from the end of the array. */
+	for( int k = 0; k != count && position >= 0; ++k )
+	{
+		int t = position--;
+		for( int i = 0; i != x.length; ++i )
+		{
+			x[i] = batch.getX(t, i) * scaleX;
+			y[i] = batch.getY(t, i) * scaleY;
+		}
+		double left = Math.min(x[0], Math.min(x[1], x[2]));
+		double right = Math.max(x[0], Math.max(x[1], x[2]));
+		double top = Math.min(y[0], Math.min(y[1], y[2]));
+		double bottom = Math.max(y[0], Math.max(y[1], y[2]));
+		if( right <= 0.0 || left >= width || bottom <= 0.0 || top >= height )
+		{
+			++offSurface;
+			continue;
+		}
+
+		/* The tiles touched by the bounding box. */
+		int column0 = tile(left, tileWidth);
+		int column1 = tile(right, tileWidth);
+		int row0 = tile(top, tileHeight);
+		int row1 = tile(bottom, tileHeight);
+		if( uncovered == 0 || allCovered(column0, row0, column1, row1) )
+		{
+			++hidden;
+			continue;
+		}
+
+		visible[--next] = t;
+		cover(x, y, column0, row0, column1, row1, tileWidth, tileHeight);
+	}
+	if( position >= 0 ) return false;
+
+	/* Move the indices to the start of the array. */
+	visibleCount = batch.size() - next;
+	System.arraycopy(visible, next, visible, 0, visibleCount);
+	batch = null;
+	return true;
+}
+
+/**
+ * @return				count of the triangles found hidden in the last culling
+ */
+public int getHidden()
+{
+	return hidden;
+}
+
+/**
+ * @return				count of the triangles found entirely off the surface in
+ *						the last culling
+ */
+public int getOffSurface()
+{
+	return offSurface;
+}
+
+/**
+ * The indices of the triangles to be drawn, in the order of drawing. Only the
+ * first getVisibleCount() are used. This is the array itself (not a copy).
+ *
+ * @return				the indices
+ */
+public int[] getVisible()
+{
+	return visible;
+}
+
+/**
+ * @return				count of the triangles to be drawn
+ */
+public int getVisibleCount()
+{
+	return visibleCount;
+}
+
+/**
+ * Start to find the triangles of a batch that can be seen on a surface of the
+ * given size, as cull does, but taking none of them yet: they are taken by calls
+ * of advance.
+ *
+ * @param batch			the triangles
+ * @param scaleX		the factor by which the x-coordinates are scaled
+ * @param scaleY		the factor by which the y-coordinates are scaled
+ * @param width			the width of the surface
+ * @param height		the height of the surface
+ */
+public void start(TriangleBatch batch, double scaleX, double scaleY, double width,
+		double height)
+{
+	int size = batch.size();
+	if( visible.length < size ) visible = new int[size];
+	Arrays.fill(covered, false);
+	this.batch = batch;
+	this.scaleX = scaleX;
+	this.scaleY = scaleY;
+	this.width = width;
+	this.height = height;
+	tileWidth = width / TILES;
+	tileHeight = height / TILES;
+	uncovered = covered.length;
+	hidden = 0;
+	offSurface = 0;
+	visibleCount = 0;
+	position = size - 1;
+	next = size;
+}
+
+/**
+ * Determine whether every tile in a range is covered.
+ *
+ * @param column0		the first column of tiles
+ * @param row0			the first row of tiles
+ * @param column1		the last column of tiles
+ * @param row1			the last row of tiles
+ * @return				true if all the tiles are covered
+ */
+private boolean allCovered(int column0, int row0, int column1, int row1)
+{
+	for( int row = row0; row <= row1; ++row )
+		for( int column = column0; column <= column1; ++column )
+			if( !covered[row * TILES + column] ) return false;
+	return true;
+}
+
+/**
+ * Mark as covered those tiles in a range that lie wholly inside a triangle (with
+ * the margin). As a triangle is convex, a tile lies inside it if the corners do.
+ *
+ * @param x				the x-coordinates of the triangle
+ * @param y				the y-coordinates of the triangle
+ * @param column0		the first column of tiles
+ * @param row0			the first row of tiles
+ * @param column1		the last column of tiles
+ * @param row1			the last row of tiles
+ * @param tileWidth		the width of a tile
+ * @param tileHeight	the height of a tile
+ */
+private void cover(double[] x, double[] y, int column0, int row0, int column1,
+		int row1, double tileWidth, double tileHeight)
+{
+	/* The sense in which the points go round the triangle. */
+	double sense = Math.signum((x[1] - x[0]) * (y[2] - y[0]) -
+			(x[2] - x[0]) * (y[1] - y[0]));
+	if( sense == 0.0 ) return;
+	for( int row = row0; row <= row1; ++row )
+	{
+		double top = row * tileHeight - MARGIN;
+		double bottom = (row + 1) * tileHeight + MARGIN;
+		for( int column = column0; column <= column1; ++column )
+		{
+			int index = row * TILES + column;
+			if( covered[index] ) continue;
+			double left = column * tileWidth - MARGIN;
+			double right = (column + 1) * tileWidth + MARGIN;
+			if( inside(x, y, sense, left, top) && inside(x, y, sense, right, top) &&
+					inside(x, y, sense, left, bottom) &&
+					inside(x, y, sense, right, bottom) )
+			{
+				covered[index] = true;
+				--uncovered;
+			}
+		}
+	}
+}
+
+/**
+ * Determine whether a point is inside a triangle (on the inner side of each edge).
+ *
+ * @param x				the x-coordinates of the triangle
+ * @param y				the y-coordinates of the triangle
+ * @param sense			the sense (+1 or -1) in which the points go round
+ * @param px			the x-coordinate of the point
+ * @param py			the y-coordinate of the point
+ * @return				true if the point is inside
+ */
+private static boolean inside(double[] x, double[] y, double sense, double px,
+		double py)
+{
+	for( int i = 0, j = 2; i != 3; j = i++ )
+	{
+		double cross = (x[i] - x[j]) * (py - y[j]) - (px - x[j]) * (y[i] - y[j]);
+		if( sense * cross <= 0.0 ) return false;
+	}
+	return true;
+}
+
+/**
+ * The tile (along one direction) holding a coordinate, limited to the surface.
+ *
+ * @param coordinate	the coordinate
+ * @param tileSize		the size of a tile in that direction
+ * @return				the index of the tile
+ */
+private static int tile(double coordinate, double tileSize)
+{
+	double index = Math.floor(coordinate / tileSize);
+	return (int) Math.max(0.0, Math.min(TILES - 1.0, index));
+}
+}
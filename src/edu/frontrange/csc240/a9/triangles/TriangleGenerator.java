@@ -0,0 +1,561 @@
+
+package edu.frontrange.csc240.a9.triangles;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import javafx.scene.paint.Color;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static java.lang.Math.sqrt;
+
+/**
+ * Generates (almost random) triangles for an area of a given size, in the manner
+ * of RandomTriangle: the first point is at a random point, and the sides are drawn
+ * from a normal distribution; triangles with areas that are too small are
+ * rejected. One generator is used for many triangles.
+ * <p>
+ * Nothing is allocated for an attempt at a triangle: the points of each attempt
+ * are placed in arrays kept by the generator, and the area is found from the
+ * coordinates (the "shoelace" formula), rather than from the lengths of the sides.
+ * The number of attempts for one triangle is limited: if that many attempts are
+ * rejected, the largest of them is enlarged (about its center) to the minimum
+ * area, so that the time taken for any one triangle is bounded. </p>
+ * <p>
+ * The generator counts the attempts it makes, and those that are rejected, so that
+ * the rejection rate can be observed. </p>
+ * <p>
+ * The random numbers come from a SplittableRandom of the generator's own: the
+ * triangles made depend only on the seed of that source, so that the same source
+ * (for example, one split from a source with a given seed) always gives the same
+ * triangles. The normal distribution is sampled by the polar method, using
+ * StrictMath, so that the results are the same on every platform. A generator is
+ * not safe for use by more than one thread at a time: generators for several
+ * threads are given sources split from one source. </p>
+ * <p>
+ * The colors may be limited to a palette: a small set of colors, each chosen as
+ * any other color is (and so kept away from the background), from which the
+ * color of each triangle is then taken. Triangles of the same color can be drawn
+ * together, with fewer changes of color. </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
+ */
+public class TriangleGenerator
+{
+/**
+ * Nearness to background limit.
+ */
+private static final float LIMIT = 0.20F;
+
+/**
+ * Fraction of size of area to be left as a margin around the triangles. This is to
+ * ensure that not too much of the triangle is outside the boundary.
+ */
+private static final float MARGIN = 0.1F;
+
+/**
+ * The most attempts made for one triangle before the largest attempt is enlarged
+ * to the minimum area. With the weight and margin used, about one attempt in twelve
+ * is accepted, so that this is reached by fewer than one triangle in a billion.
+ */
+public static final int MAXIMUM_ATTEMPTS = 256;
+
+/**
+ * The most colors in a palette. A palette is made again for each set of triangles,
+ * and so is kept small enough to be made quickly (and to be well short of the
+ * number of colors that can be chosen).
+ */
+public static final int MAXIMUM_PALETTE = 4096;
+
+/**
+ * Triangles that are very small are not used, as they can appear as just dots or
+ * lines on the display. This constant sets the minimum size as a ratio of the total
+ * area of the panel.
+ */
+private static final double MINIMUM_SIZE_RATIO = 0.05;
+
+/**
+ * The width of the area is weighted by this amount in determining the offset from
+ * the first point to the other points. The larger this number, the larger the
+ * resulting triangles. This number may be adjusted until a pleasing effect is
+ * found.
+ */
+private static final double WEIGHT = 0.25;
+
+/**
+ * Count of the attempts made.
+ */
+private long attempts;
+
+/**
+ * The height of the area available for the first point.
+ */
+private final double availableHeight;
+
+/**
+ * The width of the area available for the first point.
+ */
+private final double availableWidth;
+
+/**
+ * The RGB components of the background color, so as to not use any value near
+ * this (see LIMIT).
+ */
+private final double[] backGround;
+
+/**
+ * The x-coordinates of the largest attempt so far for the current triangle.
+ */
+private final double[] bestX = new double[RandomTriangle.TRIANGLE_POINTS];
+
+/**
+ * The y-coordinates of the largest attempt so far for the current triangle.
+ */
+private final double[] bestY = new double[RandomTriangle.TRIANGLE_POINTS];
+
+/**
+ * Count of the triangles that reached the limit of attempts, and were enlarged.
+ */
+private long enlarged;
+
+/**
+ * True if there is a second value from the normal distribution not yet used.
+ */
+private boolean haveGaussian;
+
+/**
+ * The horizontal margin.
+ */
+private final double horizontalMargin;
+
+/**
+ * The least area of a triangle that is accepted.
+ */
+private final double minimumArea;
+
+/**
+ * The second value from the normal distribution, if not yet used.
+ */
+private double nextGaussian;
+
+/**
+ * The colors (ARGB) from which the color of each triangle is taken, or null if
+ * the colors are not limited.
+ */
+private int[] palette;
+
+/**
+ * The x-coordinates of the points of a triangle being added to a batch.
+ */
+private final double[] pointsX = new double[RandomTriangle.TRIANGLE_POINTS];
+
+/**
+ * The y-coordinates of the points of a triangle being added to a batch.
+ */
+private final double[] pointsY = new double[RandomTriangle.TRIANGLE_POINTS];
+
+/**
+ * The source of random numbers.
+ */
+private final SplittableRandom random;
+
+/**
+ * Count of the attempts rejected as too small.
+ */
+private long rejections;
+
+/**
+ * The components of the color being chosen.
+ */
+private final double[] rgb = new double[3];		// this "3" is inherent to Color
+
+/**
+ * Count of the triangles generated.
+ */
+private long triangles;
+
+/**
+ * The vertical margin.
+ */
+private final double verticalMargin;
+
+/**
+ * Constructor: a generator using a new source of random numbers, with a seed that
+ * differs from one generator to the next.
+ *
+ * @param width			width of the canvas
+ * @param height		height of the canvas
+ * @param backGround	background color to be avoided
+ */
+public TriangleGenerator(double width, double height, Color backGround)
+{
+	this(width, height, backGround, new SplittableRandom());
+}
+
+/**
+ * Constructor: a generator using the given source of random numbers (so that, for
+ * example, the same triangles can be generated again from the same seed).
+ *
+ * @param width			width of the canvas
+ * @param height		height of the canvas
+ * @param backGround	background color to be avoided
+ * @param random		the source of random numbers (used by this generator only)
+ */
+public TriangleGenerator(double width, double height, Color backGround,
+		SplittableRandom random)
+{
+	this.random = random;
+
+	/* Get the dimensions of the total area, find a smaller space within that area
+	   (to ensure the some part of the triangle is visible in the window), and
+	   compute the least area of a triangle. */
+	horizontalMargin = width * MARGIN;
+	availableWidth = width - 2.0 * horizontalMargin;
+	verticalMargin = height * MARGIN;
+	availableHeight = height - 2.0 * verticalMargin;
+	minimumArea = width * height * MINIMUM_SIZE_RATIO;
+
+	/* Get the components of the background color, once only. */
+	this.backGround = new double[] {
+			backGround.getRed(), backGround.getGreen(), backGround.getBlue() };
+}
+
+/**
+ * Choose a palette of colors: each is a random color, not too near to the
+ * background, chosen as for a triangle when the colors are not limited. The
+ * colors are all different.
+ *
+ * @param size			the number of colors (from one to MAXIMUM_PALETTE)
+ * @return				the colors (ARGB)
+ */
+public int[] createPalette(int size)
+{
+	if( size < 1 )
+		throw new IllegalArgumentException("Palette must have at least one color");
+	if( size > MAXIMUM_PALETTE )
+		throw new IllegalArgumentException("Palette cannot have more than " +
+				MAXIMUM_PALETTE + " colors");
+	int[] saved = palette;
+	palette = null;
+	int[] colors = new int[size];
+	Set<Integer> chosen = new HashSet<>(2 * size);
+	for( int i = 0; i != size; ++i )
+	{
+		/* A color already in the palette is chosen again. */
+		do
+		{
+			colors[i] = randomArgb();
+		} while( !chosen.add(colors[i]) );
+	}
+	palette = saved;
+	return colors;
+}
+
+/**
+ * @return				count of the attempts made
+ */
+public long getAttempts()
+{
+	return attempts;
+}
+
+/**
+ * @return				count of the triangles that reached the limit of
+ *						attempts, and were enlarged to the minimum area
+ */
+public long getEnlarged()
+{
+	return enlarged;
+}
+
+/**
+ * @return				count of the attempts rejected as too small
+ */
+public long getRejections()
+{
+	return rejections;
+}
+
+/**
+ * @return				the colors (ARGB) to which the colors of the triangles are
+ *						limited, or null if they are not limited
+ */
+public int[] getPalette()
+{
+	return palette == null ? null : palette.clone();
+}
+
+/**
+ * @return				the fraction of the attempts that were rejected (zero if
+ *						there have been none)
+ */
+public double getRejectionRate()
+{
+	return attempts == 0 ? 0.0 : (double) rejections / attempts;
+}
+
+/**
+ * @return				count of the triangles generated
+ */
+public long getTriangles()
+{
+	return triangles;
+}
+
+/**
+ * Generate the next triangle.
+ *
+ * @return				the triangle
+ */
+public RandomTriangle next()
+{
+	double[] xPoints = new double[RandomTriangle.TRIANGLE_POINTS];
+	double[] yPoints = new double[RandomTriangle.TRIANGLE_POINTS];
+	double area = generate(xPoints, yPoints);
+	return new RandomTriangle(xPoints, yPoints, area, randomColor());
+}
+
+/**
+ * Add the counts of another generator to those of this one (so that the counts of
+ * generators that have worked together may be seen as one).
+ *
+ * @param other			the other generator
+ */
+public void addCounts(TriangleGenerator other)
+{
+	attempts += other.attempts;
+	enlarged += other.enlarged;
+	rejections += other.rejections;
+	triangles += other.triangles;
+}
+
+/**
+ * Set all the counts to zero.
+ */
+public void resetCounts()
+{
+	attempts = 0;
+	enlarged = 0;
+	rejections = 0;
+	triangles = 0;
+}
+
+/**
+ * Limit the colors of the triangles to those of a palette (such as one made by
+ * createPalette), or remove the limit.
+ *
+ * @param palette		the colors (ARGB), or null for colors that are not
+ *						limited
+ */
+public void setPalette(int[] palette)
+{
+	if( palette != null && palette.length == 0 )
+		throw new IllegalArgumentException("Palette must have at least one color");
+	this.palette = palette == null ? null : palette.clone();
+}
+
+/**
+ * Generate triangles, and add them to the end of a batch. Nothing is allocated
+ * for each triangle (other than as the batch grows).
+ *
+ * @param batch			the batch to which the triangles are added
+ * @param count			the number of triangles to generate
+ */
+void generate(TriangleBatch batch, int count)
+{
+	for( int i = 0; i != count; ++i )
+	{
+		double area = generate(pointsX, pointsY);
+		batch.add(pointsX, pointsY, area, randomArgb());
+	}
+}
+
+/**
+ * Generate triangles in place of those in a range of a batch. Nothing is
+ * allocated. Different ranges of the same batch may be generated by different
+ * generators at the same time.
+ *
+ * @param batch			the batch whose triangles are replaced
+ * @param from			the index of the first triangle to replace
+ * @param to			one beyond the index of the last triangle to replace
+ */
+void generate(TriangleBatch batch, int from, int to)
+{
+	for( int i = from; i < to; ++i )
+	{
+		double area = generate(pointsX, pointsY);
+		batch.set(i, pointsX, pointsY, area, randomArgb());
+	}
+}
+
+/**
+ * Compute the points of a triangle that has an origin at a random point, and the
+ * other two points at random from a normal distribution, that is not smaller than
+ * the minimum area.
+ *
+ * @param xPoints		array to receive the x-coordinates of the points
+ * @param yPoints		array to receive the y-coordinates of the points
+ * @return				the area of the triangle
+ */
+double generate(double[] xPoints, double[] yPoints)
+{
+	++triangles;
+	double best = -1.0;
+	for( int attempt = 0; attempt != MAXIMUM_ATTEMPTS; ++attempt )
+	{
+		++attempts;
+		/* Origin point. */
+		xPoints[0] = random.nextDouble() * availableWidth + horizontalMargin;
+		yPoints[0] = random.nextDouble() * availableHeight + verticalMargin;
+
+		/* The other points. */
+		for( int i = 1; i != RandomTriangle.TRIANGLE_POINTS; ++i )
+		{
+			xPoints[i] = xPoints[0] + gaussian() * availableWidth * WEIGHT;
+			yPoints[i] = yPoints[0] + gaussian() * availableHeight * WEIGHT;
+		}
+
+		/* If the area is big enough, the triangle is used. */
+		double area = area(xPoints, yPoints);
+		if( area >= minimumArea ) return area;
+		++rejections;
+
+		/* Otherwise, remember it if it is the largest attempt so far. */
+		if( area > best )
+		{
+			best = area;
+			System.arraycopy(xPoints, 0, bestX, 0, RandomTriangle.TRIANGLE_POINTS);
+			System.arraycopy(yPoints, 0, bestY, 0, RandomTriangle.TRIANGLE_POINTS);
+		}
+	}
+
+	/* Too many attempts: enlarge the largest attempt about its center, so that it
+	   has the minimum area (the area grows as the square of the scale). A
+	   triangle with no area at all is replaced by a right triangle at its first
+	   point. */
+	++enlarged;
+	if( best <= 0.0 )
+	{
+		double side = sqrt(2.0 * minimumArea);
+		bestX[1] = bestX[0] + side;
+		bestY[1] = bestY[0];
+		bestX[2] = bestX[0];
+		bestY[2] = bestY[0] + side;
+		best = area(bestX, bestY);
+	}
+	double scale = sqrt(minimumArea / best);
+	double centerX = (bestX[0] + bestX[1] + bestX[2]) / 3.0;
+	double centerY = (bestY[0] + bestY[1] + bestY[2]) / 3.0;
+	for( int i = 0; i != RandomTriangle.TRIANGLE_POINTS; ++i )
+	{
+		xPoints[i] = centerX + (bestX[i] - centerX) * scale;
+		yPoints[i] = centerY + (bestY[i] - centerY) * scale;
+	}
+	return max(minimumArea, area(xPoints, yPoints));
+}
+
+/**
+ * Generate a random color in the RBG color space, but not too near to the color
+ * that is being used as the background.
+ *
+ * @return	a random color in the RGB color space.
+ */
+Color randomColor()
+{
+	if( palette != null )
+	{
+		int argb = palette[random.nextInt(palette.length)];
+		return Color.rgb(argb >>> 16 & 0xFF, argb >>> 8 & 0xFF, argb & 0xFF);
+	}
+	chooseComponents();
+
+	/* Create a color in the sRGB space for those values. */
+	return Color.color(rgb[0], rgb[1], rgb[2]);
+}
+
+/**
+ * Generate a random color, as randomColor, but given as an (opaque) ARGB value.
+ *
+ * @return				a random color (ARGB)
+ */
+int randomArgb()
+{
+	if( palette != null ) return palette[random.nextInt(palette.length)];
+	chooseComponents();
+	int argb = 0xFF000000;
+	for( int h = 0; h != rgb.length; ++h )
+		argb |= (int) Math.round(rgb[h] * 255.0) << (16 - 8 * h);
+	return argb;
+}
+
+/**
+ * Choose the components of a random color, not too near to the background.
+ */
+private void chooseComponents()
+{
+	/* Select random rgb color values that are out of the range defined by the LIMIT
+	   value. This guarantees that the color of the triangle will never be
+	   completely the same as the background color, and can always be seen against
+	   the background. */
+	for( int h = 0; h != rgb.length; ++h )
+	{
+		boolean OK;
+		do
+		{
+			rgb[h] = random.nextDouble();
+			/* The range is LIMIT wide, but not outside the range 0.0F-1.0F. */
+			double bottom_of_range = backGround[h] - LIMIT / 2.0F;
+			double top_of_range = backGround[h] + LIMIT / 2.0F;
+			double increment = max(0.0F, -bottom_of_range);
+			double decrement = max(0.0F, top_of_range - 1.0F);
+			bottom_of_range += increment - decrement;
+			top_of_range += increment - decrement;
+			OK = rgb[h] < bottom_of_range || rgb[h] > top_of_range;
+		} while( !OK );
+	}
+}
+
+/**
+ * The next value from the normal distribution (with mean zero and standard
+ * deviation one), by the polar method of Marsaglia. Values are made in pairs.
+ *
+ * @return				the value
+ */
+private double gaussian()
+{
+	if( haveGaussian )
+	{
+		haveGaussian = false;
+		return nextGaussian;
+	}
+	double v1;
+	double v2;
+	double s;
+	do
+	{
+		v1 = 2.0 * random.nextDouble() - 1.0;
+		v2 = 2.0 * random.nextDouble() - 1.0;
+		s = v1 * v1 + v2 * v2;
+	} while( s >= 1.0 || s == 0.0 );
+	double multiplier = StrictMath.sqrt(-2.0 * StrictMath.log(s) / s);
+	nextGaussian = v2 * multiplier;
+	haveGaussian = true;
+	return v1 * multiplier;
+}
+
+/**
+ * The area of a triangle, by the "shoelace" formula: half the magnitude of the
+ * cross product of two of its sides.
+ *
+ * @param xPoints		the x-coordinates of the points
+ * @param yPoints		the y-coordinates of the points
+ * @return				the area
+ */
+private static double area(double[] xPoints, double[] yPoints)
+{
+	return abs((xPoints[1] - xPoints[0]) * (yPoints[2] - yPoints[0]) -
+			(xPoints[2] - xPoints[0]) * (yPoints[1] - yPoints[0])) / 2.0;
+}
+}
@@ -0,0 +1,415 @@
+
+package edu.frontrange.csc240.a9.triangles;
+
+import java.util.Arrays;
+
+/**
+ * An index over the triangles of a batch, to find the topmost triangle (the last
+ * drawn) holding a given point, without looking at every triangle.
+ * <p>
+ * The area of the scene is divided into a uniform grid of buckets. Each bucket
+ * holds the indices of the triangles whose bounding boxes touch it, from the front
+ * (the last drawn) to the back, but only until the bucket lies wholly inside one of
+ * the triangles: the triangles behind that one cannot be seen anywhere in the
+ * bucket, and so can never be the topmost. As the triangles are large, and drawn
+ * from largest to smallest, the buckets are soon covered, and each holds only a
+ * few triangles however many there are in the scene. A point is found by looking
+ * through the one bucket that holds it, front to back, for the first triangle
+ * holding the point. </p>
+ * <p>
+ * The index is of the triangles in their order when it was built, in the
+ * coordinates in which they were made; it must be built again if the batch is
+ * changed. It may be built at once, or a part at a time. Once complete, it may be
+ * used by any number of threads (as long as the batch is not changed). </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
+ */
+public class TriangleIndex
+{
+/**
+ * Number of buckets each way across the scene.
+ */
+private static final int BUCKETS = 128;
+
+/**
+ * Number of points in a triangle.
+ */
+private static final int POINTS = RandomTriangle.TRIANGLE_POINTS;
+
+/**
+ * The triangles indexed.
+ */
+private final TriangleBatch batch;
+
+/**
+ * The height of a bucket.
+ */
+private final double bucketHeight;
+
+/**
+ * The width of a bucket.
+ */
+private final double bucketWidth;
+
+/**
+ * While the index is being built, the buckets that are wholly covered.
+ */
+private boolean[] covered;
+
+/**
+ * While the index is being built, the triangle of each entry.
+ */
+private int[] entries;
+
+/**
+ * While the index is being built, the first entry of the list of entries of each
+ * bucket (or -1 if the list is empty).
+ */
+private int[] heads;
+
+/**
+ * The height of the scene.
+ */
+private final double height;
+
+/**
+ * The indices of the triangles in each bucket, front to back, one bucket after
+ * the other (null until the index is complete).
+ */
+private int[] items;
+
+/**
+ * While the index is being built, the next entry in the list holding each entry
+ * (or -1 at the end of the list).
+ */
+private int[] links;
+
+/**
+ * While the index is being built, the next triangle to be added (the triangles
+ * are added from the last to the first).
+ */
+private int next;
+
+/**
+ * For each bucket (and one beyond the last), the index in items of its first
+ * triangle (null until the index is complete).
+ */
+private int[] starts;
+
+/**
+ * While the index is being built, the last entry of the list of entries of each
+ * bucket.
+ */
+private int[] tails;
+
+/**
+ * While the index is being built, count of the buckets not yet covered.
+ */
+private int uncovered;
+
+/**
+ * While the index is being built, count of the entries used.
+ */
+private int used;
+
+/**
+ * The width of the scene.
+ */
+private final double width;
+
+/**
+ * Constructor: build the index over the triangles of a batch, in a scene of the
+ * given size (the size for which the triangles were made).
+ *
+ * @param batch			the triangles, in the order in which they are drawn
+ * @param width			the width of the scene
+ * @param height		the height of the scene
+ */
+public TriangleIndex(TriangleBatch batch, double width, double height)
+{
+	this(batch, width, height, Integer.MAX_VALUE);
+}
+
+/**
+ * Constructor: an index over the triangles of a batch, with (at most) the given
+ * number of them added at once, the rest to be added by calls of build.
+ *
+ * @param batch			the triangles, in the order in which they are drawn
+ * @param width			the width of the scene
+ * @param height		the height of the scene
+ * @param count			the most triangles to add at once
+ */
+private TriangleIndex(TriangleBatch batch, double width, double height, int count)
+{
+	if( !(width > 0.0) || !(height > 0.0) )
+		throw new IllegalArgumentException("Scene must have a positive size");
+	this.batch = batch;
+	this.width = width;
+	this.height = height;
+	bucketWidth = width / BUCKETS;
+	bucketHeight = height / BUCKETS;
+	covered = new boolean[BUCKETS * BUCKETS];
+	heads = new int[BUCKETS * BUCKETS];
+	tails = new int[BUCKETS * BUCKETS];
+	Arrays.fill(heads, -1);
+	entries = new int[Math.max(16, Math.min(batch.size(), 4 * covered.length))];
+	links = new int[entries.length];
+	uncovered = covered.length;
+	next = batch.size() - 1;
+	build(count);
+}
+
+/**
+ * Find the topmost triangle (the last drawn) holding a point. A point on an edge
+ * is held by the triangle. The index must be complete.
+ *
+ * @param x				the x-coordinate of the point (in the scene)
+ * @param y				the y-coordinate of the point (in the scene)
+ * @return				the index of the triangle, or -1 if no triangle holds the
+ *						point (or the point is outside the scene)
+ */
+public int find(double x, double y)
+{
+	if( starts == null )
+		throw new IllegalStateException("The index is not yet complete");
+	if( !(x >= 0.0 && x <= width && y >= 0.0 && y <= height) ) return -1;
+	int b = bucket(y, bucketHeight) * BUCKETS + bucket(x, bucketWidth);
+	double[] px = new double[POINTS];
+	double[] py = new double[POINTS];
+	for( int k = starts[b]; k != starts[b + 1]; ++k )
+	{
+		int t = items[k];
+		points(t, px, py);
+		double sense = sense(px, py);
+		if( sense != 0.0 && holds(px, py, sense, x, y) ) return t;
+	}
+	return -1;
+}
+
+/**
+ * @return				the number of buckets in the index
+ */
+public int getBucketCount()
+{
+	return BUCKETS * BUCKETS;
+}
+
+/**
+ * @return				the number of entries (triangles in buckets) held in the
+ *						index, over all the buckets (so far, if the index is not
+ *						yet complete)
+ */
+public int getEntryCount()
+{
+	return items == null ? used : items.length;
+}
+
+/**
+ * @return				the most triangles held in any one bucket, which bounds the
+ *						triangles looked at to find a point (zero if the index is
+ *						not yet complete)
+ */
+public int getMaximumDepth()
+{
+	int maximum = 0;
+	if( starts == null ) return maximum;
+	for( int b = 0; b != starts.length - 1; ++b )
+		maximum = Math.max(maximum, starts[b + 1] - starts[b]);
+	return maximum;
+}
+
+/**
+ * @return				true if the index is complete
+ */
+public boolean isComplete()
+{
+	return starts != null;
+}
+
+/**
+ * Build more of the index: the next triangles, front to back, are added to the
+ * buckets they touch that are not yet covered. The entries of each bucket are
+ * linked in the order added, and, once all the triangles have been added (or all
+ * the buckets are covered), gathered bucket by bucket.
+ *
+ * @param count			the most triangles to add
+ * @return				true if the index is complete
+ */
+boolean build(int count)
+{
+	if( starts != null ) return true;
+	double[] x = new double[POINTS];
+	double[] y = new double[POINTS];
+	for( int k = 0; k != count && next >= 0 && uncovered != 0; ++k )
+	{
+		int t = next--;
+		points(t, x, y);
+		double sense = sense(x, y);
+		double minimumX = Math.min(x[0], Math.min(x[1], x[2]));
+		double maximumX = Math.max(x[0], Math.max(x[1], x[2]));
+		double minimumY = Math.min(y[0], Math.min(y[1], y[2]));
+		double maximumY = Math.max(y[0], Math.max(y[1], y[2]));
+		if( maximumX < 0.0 || minimumX > width || maximumY < 0.0 ||
+				minimumY > height )
+			continue;
+		int column0 = bucket(minimumX, bucketWidth);
+		int column1 = bucket(maximumX, bucketWidth);
+		int row0 = bucket(minimumY, bucketHeight);
+		int row1 = bucket(maximumY, bucketHeight);
+		for( int row = row0; row <= row1; ++row )
+		{
+			double top = row * bucketHeight;
+			double bottom = top + bucketHeight;
+			for( int column = column0; column <= column1; ++column )
+			{
+				int b = row * BUCKETS + column;
+				if( covered[b] ) continue;
+				if( used == entries.length )
+				{
+					entries = Arrays.copyOf(entries, 2 * used);
+					links = Arrays.copyOf(links, 2 * used);
+				}
+				entries[used] = t;
+				links[used] = -1;
+				if( heads[b] < 0 )
+					heads[b] = used;
+				else
+					links[tails[b]] = used;
+				tails[b] = used++;
+
+				/* As a triangle is convex, the bucket lies inside it if the
+				   corners do. */
+				double left = column * bucketWidth;
+				double right = left + bucketWidth;
+				if( sense != 0.0 && inside(x, y, sense, left, top) &&
+						inside(x, y, sense, right, top) &&
+						inside(x, y, sense, left, bottom) &&
+						inside(x, y, sense, right, bottom) )
+				{
+					covered[b] = true;
+					--uncovered;
+				}
+			}
+		}
+	}
+	if( next >= 0 && uncovered != 0 ) return false;
+
+	/* Gather the entries, bucket by bucket, and let go of the lists. */
+	int[] gathered = new int[used];
+	int[] firsts = new int[covered.length + 1];
+	int position = 0;
+	for( int b = 0; b != covered.length; ++b )
+	{
+		firsts[b] = position;
+		for( int e = heads[b]; e >= 0; e = links[e] )
+			gathered[position++] = entries[e];
+	}
+	firsts[covered.length] = position;
+	items = gathered;
+	starts = firsts;
+	covered = null;
+	entries = null;
+	heads = null;
+	links = null;
+	tails = null;
+	return true;
+}
+
+/**
+ * An index over the triangles of a batch, to be built a part at a time by calls
+ * of build (as when the triangles are made a little at a time).
+ *
+ * @param batch			the triangles, in the order in which they are drawn
+ * @param width			the width of the scene
+ * @param height		the height of the scene
+ * @return				the index, with nothing yet built
+ */
+static TriangleIndex incremental(TriangleBatch batch, double width, double height)
+{
+	return new TriangleIndex(batch, width, height, 0);
+}
+
+/**
+ * The bucket (along one direction) holding a coordinate, limited to the scene.
+ *
+ * @param coordinate	the coordinate
+ * @param bucketSize	the size of a bucket in that direction
+ * @return				the index of the bucket
+ */
+private static int bucket(double coordinate, double bucketSize)
+{
+	double index = Math.floor(coordinate / bucketSize);
+	return (int) Math.max(0.0, Math.min(BUCKETS - 1.0, index));
+}
+
+/**
+ * Determine whether a point is inside a triangle or on its edges.
+ *
+ * @param x				the x-coordinates of the triangle
+ * @param y				the y-coordinates of the triangle
+ * @param sense			the sense (+1 or -1) in which the points go round
+ * @param px			the x-coordinate of the point
+ * @param py			the y-coordinate of the point
+ * @return				true if the point is held by the triangle
+ */
+private static boolean holds(double[] x, double[] y, double sense, double px,
+		double py)
+{
+	for( int i = 0, j = 2; i != 3; j = i++ )
+	{
+		double cross = (x[i] - x[j]) * (py - y[j]) - (px - x[j]) * (y[i] - y[j]);
+		if( sense * cross < 0.0 ) return false;
+	}
+	return true;
+}
+
+/**
+ * Determine whether a point is strictly inside a triangle (not on its edges).
+ *
+ * @param x				the x-coordinates of the triangle
+ * @param y				the y-coordinates of the triangle
+ * @param sense			the sense (+1 or -1) in which the points go round
+ * @param px			the x-coordinate of the point
+ * @param py			the y-coordinate of the point
+ * @return				true if the point is inside
+ */
+private static boolean inside(double[] x, double[] y, double sense, double px,
+		double py)
+{
+	for( int i = 0, j = 2; i != 3; j = i++ )
+	{
+		double cross = (x[i] - x[j]) * (py - y[j]) - (px - x[j]) * (y[i] - y[j]);
+		if( sense * cross <= 0.0 ) return false;
+	}
+	return true;
+}
+
+/**
+ * Get the points of a triangle.
+ *
+ * @param t				the index of the triangle
+ * @param x				array to receive the x-coordinates
+ * @param y				array to receive the y-coordinates
+ */
+private void points(int t, double[] x, double[] y)
+{
+	for( int i = 0; i != POINTS; ++i )
+	{
+		x[i] = batch.getX(t, i);
+		y[i] = batch.getY(t, i);
+	}
+}
+
+/**
+ * The sense in which the points go round a triangle.
+ *
+ * @param x				the x-coordinates of the triangle
+ * @param y				the y-coordinates of the triangle
+ * @return				+1 or -1, or zero if the triangle has no area
+ */
+private static double sense(double[] x, double[] y)
+{
+	return Math.signum((x[1] - x[0]) * (y[2] - y[0]) - (x[2] - x[0]) * (y[1] - y[0]));
+}
+}
@@ -0,0 +1,174 @@
+
+package edu.frontrange.csc240.a9.triangles;
+
+/**
+ * A complete set of triangles, as made from one seed for one size, together with
+ * all that is made with it: the index over the triangles, and the counts of the
+ * attempts of the generators that made them.
+ * <p>
+ * A scene is made whole before it is seen by anything else, and is not changed
+ * after (the triangles are neither added to nor sorted again, and the index is
+ * complete). It may therefore be made on one thread and handed to another (through
+ * anything that makes it safely visible, such as an AtomicReference), and drawn by
+ * that thread, without the drawing ever seeing a set only partly made. The model
+ * changes from one set of triangles to another by replacing its scene as a whole.
+ * The triangles are given out as a batch, which cannot be changed outside this
+ * package, and the generators are not kept at all (only their counts). </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
+ */
+public final class TriangleScene
+{
+/**
+ * Count of the attempts made to make the triangles.
+ */
+private final long attempts;
+
+/**
+ * Count of the triangles that reached the limit of attempts, and were enlarged.
+ */
+private final long enlarged;
+
+/**
+ * The height for which the triangles were made.
+ */
+private final double height;
+
+/**
+ * The index finding the topmost triangle holding a point.
+ */
+private final TriangleIndex index;
+
+/**
+ * Count of the attempts rejected as too small.
+ */
+private final long rejections;
+
+/**
+ * The seed from which the triangles were made.
+ */
+private final long seed;
+
+/**
+ * The triangles, sorted from largest to smallest.
+ */
+private final TriangleBatch triangles;
+
+/**
+ * The width for which the triangles were made.
+ */
+private final double width;
+
+/**
+ * Constructor.
+ *
+ * @param triangles		the triangles (sorted from largest to smallest)
+ * @param index			the index over those triangles (complete)
+ * @param generators	the generators that made them (only their counts are kept)
+ * @param seed			the seed from which they were made
+ * @param width			the width for which they were made
+ * @param height		the height for which they were made
+ */
+TriangleScene(TriangleBatch triangles, TriangleIndex index,
+		TriangleGenerator[] generators, long seed, double width, double height)
+{
+	if( !index.isComplete() )
+		throw new IllegalArgumentException("The index is not yet complete");
+	long attemptCount = 0;
+	long enlargedCount = 0;
+	long rejectionCount = 0;
+	for( TriangleGenerator generator : generators )
+	{
+		attemptCount += generator.getAttempts();
+		enlargedCount += generator.getEnlarged();
+		rejectionCount += generator.getRejections();
+	}
+	this.triangles = triangles;
+	this.index = index;
+	attempts = attemptCount;
+	enlarged = enlargedCount;
+	rejections = rejectionCount;
+	this.seed = seed;
+	this.width = width;
+	this.height = height;
+}
+
+/**
+ * @return				count of the attempts made to make the triangles
+ */
+public long getAttempts()
+{
+	return attempts;
+}
+
+/**
+ * @return				count of the triangles that reached the limit of
+ *						attempts, and were enlarged to the minimum area
+ */
+public long getEnlarged()
+{
+	return enlarged;
+}
+
+/**
+ * @return				the height for which the triangles were made
+ */
+public double getHeight()
+{
+	return height;
+}
+
+/**
+ * @return				the index over the triangles
+ */
+public TriangleIndex getIndex()
+{
+	return index;
+}
+
+/**
+ * @return				count of the attempts rejected as too small
+ */
+public long getRejections()
+{
+	return rejections;
+}
+
+/**
+ * The rate at which attempts were rejected as too small, made available so that
+ * it can be observed.
+ *
+ * @return				the rejections as a fraction of the attempts (zero if none)
+ */
+public double getRejectionRate()
+{
+	return attempts == 0 ? 0.0 : (double) rejections / attempts;
+}
+
+/**
+ * @return				the seed from which the triangles were made
+ */
+public long getSeed()
+{
+	return seed;
+}
+
+/**
+ * The triangles of the scene (which cannot be changed outside this package).
+ *
+ * @return				the triangles (sorted from largest to smallest)
+ */
+public TriangleBatch getTriangles()
+{
+	return triangles;
+}
+
+/**
+ * @return				the width for which the triangles were made
+ */
+public double getWidth()
+{
+	return width;
+}
+}
@@ -7,21 +7,55 @@ import javafx.application.Application;
  * Initial program start for the Triangles exercise.
  *
  * @author		Dr. Bruce K. Haddon, Instructor
- * @version		2.2, 2020-08-22, CSC-240 Assignment 9
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
  */
 public class Triangles
 {
+/**
+ * The prefix of the option asking for the stress test, rather than a window.
+ */
+private static final String STRESS = "--" + TrianglesStress.STRESS + "=";
+
 /**
  * The main entry point.
  * <p>
  * Execute: </p>
- * <pre>java edu.frontrange.csc240.a9.triangles.Triangles</pre>
+ * <pre>java edu.frontrange.csc240.a9.triangles.Triangles [--resize=scale] [--palette=n]
+ *		[--progressive=ms] [--generate=worker] [--count=n] [--seed=s]
+ *		[--size=WIDTHxHEIGHT] [--background=color]</pre>
+ * <p>
+ * where {@code --resize=scale} keeps the same triangles when the window is
+ * resized, scaled to the new size (clicking on the triangles makes a new set),
+ * {@code --palette=n} limits the colors of the triangles to n colors (so that
+ * triangles of the same color are drawn together), {@code --progressive=ms}
+ * makes and draws the triangles a little at a time, for ms milliseconds at each
+ * pulse, so that the window stays responsive however many triangles there are,
+ * and {@code --generate=worker} makes each new set of triangles on a worker
+ * thread, keeping the set before on view until the new set is complete. The
+ * number of triangles, the seed from which the sets of triangles follow, the
+ * initial size of the drawing, and its background color (a name, or #rrggbb) may
+ * also be given; </p>
+ * <p>
+ * or, to make and draw sets of triangles without a display, and report the rates
+ * at which this is done, the rejection rate and the memory allocated: </p>
+ * <pre>java edu.frontrange.csc240.a9.triangles.Triangles --stress=scenes
+ *		[--count=n] [--seed=s] [--size=WIDTHxHEIGHT] [--background=color]
+ *		[--palette=n]</pre>
  *
- * @param args			unused
+ * @param args			the options
  */
 public static void main(String... args)
 {
+	/* Run the stress test without launching the view. */
+	for( String arg : args )
+		if( arg.startsWith(STRESS) )
+		{
+			int status = TrianglesStress.commandLine(args);
+			if( status != 0 ) System.exit(status);
+			return;
+		}
+
 	/* Instantiate the view by using the Application launch method. */
-	Application.launch(TrianglesView.class);
+	Application.launch(TrianglesView.class, args);
 }
 }
\ No newline at end of file
@@ -1,26 +1,57 @@
 
 package edu.frontrange.csc240.a9.triangles;
 
+import edu.frontrange.csc240.a9.render.CanvasTarget;
 import java.net.URL;
 import java.util.ResourceBundle;
-import javafx.beans.InvalidationListener;
-import javafx.beans.Observable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javafx.animation.AnimationTimer;
 import javafx.fxml.Initializable;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.paint.Color;
+import software.haddon.util.RedrawScheduler;
 
 /**
- * Controller for the View for displaying triangles.
+ * Controller for the View for displaying triangles. The triangle under the mouse
+ * is highlighted, by an outline drawn on a canvas laid over the triangles.
  *
  * @author		Dr. Bruce K. Haddon, Instructor
- * @version		2.2, 2020-08-22, CSC-240 Assignment 9
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
  */
 public class TrianglesController implements Initializable
 {
 /**
- * The number of triangles to be included in the drawing.
+ * The name of the parameter choosing where new sets of triangles are made.
  */
-private static final int NUMBER_OF_TRIANGLES = 10;
+private static final String GENERATE = "generate";
+
+/**
+ * The value of the generate parameter that makes each new set of triangles on a
+ * worker thread, while the current set stays on view.
+ */
+private static final String GENERATE_WORKER = "worker";
+
+/**
+ * The name of the parameter giving the time (milliseconds) for which the triangles
+ * are made and drawn at each pulse, a little at a time. If not given, the
+ * triangles are made and drawn at once.
+ */
+private static final String PROGRESSIVE = "progressive";
+
+/**
+ * The name of the parameter choosing what is done when the window is resized.
+ */
+private static final String RESIZE = "resize";
+
+/**
+ * The value of the resize parameter that keeps the same scene, scaled to the new
+ * size (rather than making a new set of triangles for each size).
+ */
+private static final String RESIZE_SCALE = "scale";
 
 /**
  * The title to go on the window.
@@ -33,38 +64,145 @@ private static final String TITLE = "Random Triangles";
 private Canvas canvas;
 
 /**
- * Overall size of the canvas.
+ * Initial height of the canvas.
+ */
+private double canvasHeight;
+
+/**
+ * Initial width of the canvas.
+ */
+private double canvasWidth;
+
+/**
+ * The height at which the triangles were last drawn (or asked to be drawn).
  */
-private double canvasSize;
+private double drawingHeight;
+
+/**
+ * The width at which the triangles were last drawn (or asked to be drawn).
+ */
+private double drawingWidth;
+
+/**
+ * (GUI) The canvas, laid over the triangles, showing the highlighted triangle.
+ */
+private Canvas highlight;
+
+/**
+ * The index of the highlighted triangle, or -1 if none.
+ */
+private int hovered = -1;
+
+/**
+ * True if the scene is kept (scaled) when the window is resized, and is made anew
+ * only when asked for.
+ */
+private boolean keepScene;
+
+/**
+ * The position of the mouse over the canvas, or NaN if it is not over the canvas.
+ */
+private double mouseX = Double.NaN;
+
+/**
+ * The position of the mouse over the canvas, or NaN if it is not over the canvas.
+ */
+private double mouseY = Double.NaN;
+
+/**
+ * The job making or drawing the triangles a little at a time, or null if none.
+ */
+private TrianglesJob job;
+
+/**
+ * The latest scene made by the worker, waiting to be swapped in at the next
+ * pulse, or null if none is waiting.
+ */
+private final AtomicReference<TriangleScene> made = new AtomicReference<>();
+
+/**
+ * The task of the worker making the latest scene asked for, or null if none has
+ * been asked for.
+ */
+private Future<?> making;
 
 /**
  * The model for this controller.
  */
 private final TrianglesModel model;
 
+/**
+ * The options (given on the command line) choosing the triangles.
+ */
+private final TrianglesOptions options;
+
+/**
+ * Count of the scenes asked of the worker: a scene is given to the view only if
+ * none has been asked for since it was.
+ */
+private final AtomicLong requests = new AtomicLong();
+
+/**
+ * The time (nanoseconds) given at each pulse to the job, or zero if the triangles
+ * are made and drawn at once.
+ */
+private long budget;
+
+/**
+ * Scheduler that collapses the requests to redraw into one per pulse.
+ */
+private RedrawScheduler scheduler;
+
+/**
+ * The timer that does part of the job at each pulse, while there is a job.
+ */
+private AnimationTimer stepper;
+
+/**
+ * The timer that, at each pulse while the worker is making a scene, swaps in the
+ * scene made (if there is one), and draws it.
+ */
+private AnimationTimer swapper;
+
 /**
  * (GUI) Title
  */
 private String title;
 
+/**
+ * The target drawing on the canvas.
+ */
+private CanvasTarget target;
+
 /**
  * The view for which this is the controller
  */
 private final TrianglesView view;
 
+/**
+ * The thread that makes new scenes, away from the JavaFX Application thread, or
+ * null if they are made on that thread.
+ */
+private ExecutorService worker;
+
 /**
  * Constructor.
  *
  * @param view			the view for which this is the controller
- * @param backGround	the background color selected by the View
+ * @param options		the options choosing the triangles (including the
+ *						background color selected by the View)
  */
-public TrianglesController(TrianglesView view, Color backGround)
+public TrianglesController(TrianglesView view, TrianglesOptions options)
 {
 	/* The view for which this is the controller. */
 	this.view = view;
+	this.options = options;
 
-	/* Get the model being used by this controller. */
-	model = new TrianglesModel(NUMBER_OF_TRIANGLES, backGround);
+	/* Get the model being used by this controller, with the number of triangles,
+	   colors and seed given by the options. */
+	model = new TrianglesModel(options.getCount(), options.getBackground());
+	model.setPaletteSize(options.getPalette());
+	if( options.hasSeed() ) model.setSeed(options.getSeed());
 }
 
 /**
@@ -77,6 +215,17 @@ public Canvas getCanvas()
 	return canvas;
 }
 
+/**
+ * Get the canvas that shows the highlighted triangle, to be laid over the canvas
+ * of the triangles.
+ *
+ * @return				the canvas
+ */
+public Canvas getHighlight()
+{
+	return highlight;
+}
+
 /**
  * Inform the caller of the model used by this controller.
  *
@@ -87,6 +236,17 @@ public TrianglesModel getModel()
 	return model;
 }
 
+/**
+ * The scheduler used to redraw the triangles, made available so that the count of
+ * collapsed requests can be observed.
+ *
+ * @return				the scheduler
+ */
+public RedrawScheduler getScheduler()
+{
+	return scheduler;
+}
+
 /**
  * @return				the title
  */
@@ -95,6 +255,31 @@ public String getTitle()
 	return title;
 }
 
+/**
+ * Make a new set of triangles, and draw them. This is done when the canvas is
+ * clicked.
+ */
+public void regenerate()
+{
+	double width = canvas.getWidth();
+	double height = canvas.getHeight();
+	if( worker != null )
+	{
+		makeScene(width, height);
+		return;
+	}
+	if( budget > 0 )
+	{
+		start(keepScene ?
+				model.createSceneProgressively(target, width, height) :
+				model.createTrianglesProgressively(target, width, height));
+		return;
+	}
+	createTriangles(width, height);
+	model.draw(canvas, width, height);
+	updateHighlight(true);
+}
+
 /**
  * Create the components for the controls needed in the view. Validate the given
  * cell count and cell size.
@@ -105,34 +290,274 @@ public String getTitle()
 @Override
 public void initialize(URL url, ResourceBundle rb)
 {
-	/* This listener listens to the scene in which the canvas is embedded, when
-	   the size of the scene is change, the canvas is redrawn (and also resized). */
-	@SuppressWarnings("Convert2Lambda")
-	InvalidationListener listener =	new InvalidationListener()
+	/* With the parameter --resize=scale, the scene is kept when the window is
+	   resized (and only drawn again at the new size). */
+	keepScene = RESIZE_SCALE.equals(view.getParameters().getNamed().get(RESIZE));
+
+	/* With the parameter --progressive=ms, the triangles are made and drawn a
+	   little at a time, for that long at each pulse. Work for an earlier size is
+	   cancelled when there is a newer one. */
+	String progressive = view.getParameters().getNamed().get(PROGRESSIVE);
+	if( progressive != null )
+		try
+		{
+			double milliseconds = Double.parseDouble(progressive.trim());
+			if( !(milliseconds > 0.0) )
+				throw new IllegalArgumentException("must be positive");
+			budget = Math.max(1L, (long) (milliseconds * 1.0E6));
+		} catch( IllegalArgumentException ex )
+		{
+			System.err.println("Progressive time " + progressive + " ignored: " +
+					ex.getMessage());
+		}
+
+	/* With the parameter --generate=worker, each new set of triangles is made
+	   on a worker thread, as a scene complete in itself, while the set before
+	   stays on view (and can still be highlighted, or, if the scene is kept,
+	   drawn at a new size). The scene is handed over through an atomic
+	   reference, and is swapped in for the old one, as a whole, at the next
+	   pulse, then drawn (at once, or a little at a time with --progressive). A
+	   scene asked for is not given to the view if a newer one has been asked
+	   for meanwhile. */
+	if( GENERATE_WORKER.equals(view.getParameters().getNamed().get(GENERATE)) )
+		worker = Executors.newSingleThreadExecutor(task ->
+					{
+						Thread thread = new Thread(task, "Triangles worker");
+						thread.setDaemon(true);
+						return thread;
+					});
+	swapper = new AnimationTimer()
+	{
+		@Override
+		public void handle(long now)
+		{
+			/* If the task had finished before the scene was taken, its scene
+			   (if any) has been taken, and there is no more to wait for. */
+			boolean finished = making.isDone();
+			TriangleScene next = made.getAndSet(null);
+			if( next != null )
+			{
+				model.setScene(next);
+				drawTriangles(drawingWidth, drawingHeight);
+			}
+			if( !finished ) return;
+			stop();
+			try
+			{
+				making.get();
+			} catch( ExecutionException ex )
+			{
+				System.err.println("Triangles not made: " + ex.getCause());
+			} catch( InterruptedException ex )
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	};
+	stepper = new AnimationTimer()
+	{
+		@Override
+		public void handle(long now)
+		{
+			if( job == null || job.step(budget) )
+			{
+				stop();
+				job = null;
+				updateHighlight(true);
+			}
+		}
+	};
+
+	/* The scheduler creates and draws a new set of triangles (or, if the scene
+	   is kept, only draws the scene) at most once per pulse, however many times
+	   the size of the scene is changed during that pulse. */
+	scheduler = new RedrawScheduler(() ->
 				{
-					 @Override
-					public void invalidated(Observable o)
+					double width =  view.getScene().getWidth();
+					double height = view.getScene().getHeight();
+					if( width == 0.0 || Double.isNaN(width)) return;
+					if( height == 0.0 || Double.isNaN(height)) return;
+					if( worker != null )
+					{
+						if( keepScene )
+							drawTriangles(width, height);
+						else
+							makeScene(width, height);
+						return;
+					}
+					if( budget > 0 )
 					{
-						double width =  view.getScene().getWidth();
-						double height = view.getScene().getHeight();
-						if( width == 0.0 || Double.isNaN(width)) return;
-						if( height == 0.0 || Double.isNaN(height)) return;
-						model.createTriangles(width, height);
-						model.draw(canvas, width, height);
+						if( keepScene )
+							drawProgressively(width, height);
+						else
+							start(model.createTrianglesProgressively(target,
+									width, height));
+						return;
 					}
-				};
+					if( !keepScene ) model.createTriangles(width, height);
+					model.draw(canvas, width, height);
+					updateHighlight(true);
+				});
 
-	/* Add this listener to the width and height properties of the scene. */
-	view.getScene().widthProperty().addListener(listener);
-	view.getScene().heightProperty().addListener(listener);
+	/* The listener of the scheduler listens to the scene in which the canvas is
+	   embedded: when the size of the scene is changed, the canvas is redrawn (and
+	   also resized). Add this listener to the width and height properties of the
+	   scene. */
+	view.getScene().widthProperty().addListener(scheduler.getListener());
+	view.getScene().heightProperty().addListener(scheduler.getListener());
 
-	/* Set the intial size to hold the count of triangles. If the window is
-	   resized, a new set of triangles is computed and shown. */
-	canvasSize = model.getInitialCanvasSize();
-	canvas = new Canvas(canvasSize, canvasSize);
-	model.createTriangles(canvasSize, canvasSize);
-	model.draw(canvas, canvasSize, canvasSize);
+	/* Set the intial size (as given by the options, or that of the model) to
+	   hold the count of triangles. If the window is resized, a new set of
+	   triangles is computed and shown (unless the scene is kept). Clicking on
+	   the canvas always makes a new set. */
+	canvasWidth = Double.isNaN(options.getWidth()) ?
+			model.getInitialCanvasSize() : options.getWidth();
+	canvasHeight = Double.isNaN(options.getHeight()) ?
+			model.getInitialCanvasSize() : options.getHeight();
+	canvas = new Canvas(canvasWidth, canvasHeight);
+	target = new CanvasTarget(canvas);
+	canvas.setOnMouseClicked(e -> regenerate());
+
+	/* The triangle under the mouse is highlighted as the mouse moves. The canvas
+	   of the highlight lets the mouse through to the canvas below. */
+	highlight = new Canvas(canvasWidth, canvasHeight);
+	highlight.setMouseTransparent(true);
+	canvas.setOnMouseMoved(e ->
+				{
+					mouseX = e.getX();
+					mouseY = e.getY();
+					updateHighlight(false);
+				});
+	canvas.setOnMouseExited(e ->
+				{
+					mouseX = Double.NaN;
+					mouseY = Double.NaN;
+					updateHighlight(false);
+				});
+
+	/* The first set of triangles. */
+	if( worker != null )
+		makeScene(canvasWidth, canvasHeight);
+	else if( budget > 0 )
+		regenerate();
+	else
+	{
+		createTriangles(canvasWidth, canvasHeight);
+		model.draw(canvas, canvasWidth, canvasHeight);
+		updateHighlight(true);
+	}
 
 	title = TITLE;
 }
+
+/**
+ * Make a new set of triangles: a scene independent of the size, if the scene is
+ * kept when resized, otherwise a set for the given size.
+ *
+ * @param width			the width of the canvas
+ * @param height		the height of the canvas
+ */
+private void createTriangles(double width, double height)
+{
+	if( keepScene )
+		model.createScene();
+	else
+		model.createTriangles(width, height);
+}
+
+/**
+ * Draw the current triangles at the given size, a little at a time. If the scene
+ * is kept on resizing (and so does not depend on the size), a job still making it
+ * is left to finish, and then draw it at this size; only a job that is drawing is
+ * cancelled.
+ *
+ * @param width			the width of the drawing
+ * @param height		the height of the drawing
+ */
+private void drawProgressively(double width, double height)
+{
+	if( keepScene && job != null && job.isMaking() )
+		job.setDrawingSize(width, height);
+	else
+		start(model.drawProgressively(target, width, height));
+}
+
+/**
+ * Draw the current triangles at the given size: at once, or, with a time given at
+ * each pulse, a little at a time.
+ *
+ * @param width			the width of the drawing
+ * @param height		the height of the drawing
+ */
+private void drawTriangles(double width, double height)
+{
+	drawingWidth = width;
+	drawingHeight = height;
+	if( budget > 0 )
+	{
+		drawProgressively(width, height);
+		return;
+	}
+	model.draw(canvas, width, height);
+	updateHighlight(true);
+}
+
+/**
+ * Ask the worker for a new scene (of a unit square, if the scene is kept when
+ * resized, otherwise for the given size), to be drawn at the given size once
+ * made. Any scene asked for before, and not yet made, is no longer wanted: if not
+ * yet started, it is not made at all.
+ *
+ * @param width			the width of the drawing
+ * @param height		the height of the drawing
+ */
+private void makeScene(double width, double height)
+{
+	drawingWidth = width;
+	drawingHeight = height;
+	double sceneWidth = keepScene ? 1.0 : width;
+	double sceneHeight = keepScene ? 1.0 : height;
+	long seed = model.newSeed();
+	long request = requests.incrementAndGet();
+	if( making != null ) making.cancel(false);
+	making = worker.submit(() ->
+				{
+					if( request != requests.get() ) return;
+					TriangleScene scene =
+							model.makeScene(sceneWidth, sceneHeight, seed);
+					if( request == requests.get() ) made.set(scene);
+				});
+	swapper.start();
+}
+
+/**
+ * Start a job making or drawing the triangles a little at a time, at each pulse,
+ * in place of any job not yet finished (which is cancelled).
+ *
+ * @param next			the job
+ */
+private void start(TrianglesJob next)
+{
+	if( job != null ) job.cancel();
+	job = next;
+	stepper.start();
+}
+
+/**
+ * Highlight the triangle under the mouse (if any). The outline is drawn again only
+ * if the triangle has changed, or the triangles have been drawn again.
+ *
+ * @param redrawn		true if the triangles have been drawn again (perhaps new
+ *						triangles, or at a new size)
+ */
+private void updateHighlight(boolean redrawn)
+{
+	double width = canvas.getWidth();
+	double height = canvas.getHeight();
+	int triangle = Double.isNaN(mouseX) ? -1 :
+			model.findTriangle(mouseX, mouseY, width, height);
+	if( triangle == hovered && !redrawn ) return;
+	hovered = triangle;
+	model.drawHighlight(highlight, triangle, width, height);
+}
 }
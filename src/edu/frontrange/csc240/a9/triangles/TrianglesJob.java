@@ -0,0 +1,514 @@
+
+package edu.frontrange.csc240.a9.triangles;
+
+import edu.frontrange.csc240.a9.render.RenderTarget;
+import java.util.SplittableRandom;
+
+/**
+ * The making and drawing of a set of triangles (or the drawing alone of the
+ * current triangles of a model), done a little at a time, so that a large set can
+ * be made and drawn without holding up the thread that does it (such as the JavaFX
+ * Application thread, which must also respond to the user).
+ * <p>
+ * The work is done in slices, each of a bounded size: the generation of part of a
+ * chunk of triangles, the sorting of one chunk, the merging of part of the sorted
+ * chunks into one set, the indexing of part of the set, the culling of part of
+ * the set, and the drawing of part of the triangles. Each call of step
+ * does as many slices as fit in the time given (but at least one). The triangles
+ * made are the same as the model makes at once from the same seed: the chunks are
+ * made by the same generators, and merging the sorted chunks (taking the earlier
+ * chunk first, of triangles of the same area) gives the same order as sorting
+ * them all. </p>
+ * <p>
+ * The model keeps its current triangles until the new set is complete. A job may
+ * be cancelled (for example, when a job for a newer size takes its place), after
+ * which it does nothing more; a cancelled job never changes the model. While a job
+ * is still making its triangles, the size at which they are to be drawn may be
+ * changed (as when the window is resized, but the triangles are kept, scaled to
+ * the window). </p>
+ * <p>
+ * A job, and its model, are to be used by one thread only. </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
+ */
+public class TrianglesJob
+{
+/**
+ * The most triangles culled in one slice.
+ */
+private static final int CULL_SLICE = 16384;
+
+/**
+ * The most triangles drawn in one slice.
+ */
+private static final int DRAW_SLICE = 256;
+
+/**
+ * The most triangles generated in one slice.
+ */
+private static final int GENERATE_SLICE = 512;
+
+/**
+ * The most triangles indexed in one slice.
+ */
+private static final int INDEX_SLICE = 4096;
+
+/**
+ * The most triangles merged in one slice.
+ */
+private static final int MERGE_SLICE = 4096;
+
+/**
+ * The triangles as generated, each chunk then sorted on its own.
+ */
+private TriangleBatch batch;
+
+/**
+ * True if the job has been cancelled.
+ */
+private boolean cancelled;
+
+/**
+ * The culler finding the triangles to be drawn, or null if all are drawn.
+ */
+private TriangleCuller culler;
+
+/**
+ * The chunk being generated or sorted.
+ */
+private int chunk;
+
+/**
+ * The generators of the chunks.
+ */
+private TriangleGenerator[] generators;
+
+/**
+ * The chunks whose next triangles are yet to be merged, kept as a heap: the chunk
+ * whose next triangle comes first is at the top.
+ */
+private int[] heap;
+
+/**
+ * Number of chunks in the heap.
+ */
+private int heapSize;
+
+/**
+ * The height of the drawing.
+ */
+private double height;
+
+/**
+ * The index over the new triangles, as it is built.
+ */
+private TriangleIndex index;
+
+/**
+ * The model whose triangles are made and drawn.
+ */
+private final TrianglesModel model;
+
+/**
+ * For each chunk, the index of its next triangle to be merged.
+ */
+private int[] nexts;
+
+/**
+ * What is being done.
+ */
+private Phase phase;
+
+/**
+ * The position reached in what is being done (the triangle next to be generated,
+ * or the index next to be drawn).
+ */
+private int position;
+
+/**
+ * The scene being drawn.
+ */
+private TriangleScene scene;
+
+/**
+ * The height for which the triangles are made (zero for a job that only draws).
+ */
+private final double sceneHeight;
+
+/**
+ * The width for which the triangles are made (zero for a job that only draws).
+ */
+private final double sceneWidth;
+
+/**
+ * The seed from which the triangles are made (zero for a job that only draws).
+ */
+private final long seed;
+
+/**
+ * Count of the slices done.
+ */
+private long slices;
+
+/**
+ * The triangles in order, from largest to smallest, as they are merged; then the
+ * triangles being drawn.
+ */
+private TriangleBatch sorted;
+
+/**
+ * The target on which to draw.
+ */
+private final RenderTarget target;
+
+/**
+ * Count of the triangles to be drawn.
+ */
+private int visibleCount;
+
+/**
+ * The width of the drawing.
+ */
+private double width;
+
+/**
+ * Constructor: a job to make a new set of triangles for the model, and draw them.
+ *
+ * @param model			the model
+ * @param target		the target on which to draw
+ * @param sceneWidth	the width for which the triangles are made
+ * @param sceneHeight	the height for which the triangles are made
+ * @param width			the width of the drawing
+ * @param height		the height of the drawing
+ * @param seed			the seed from which the triangles are made
+ */
+TrianglesJob(TrianglesModel model, RenderTarget target, double sceneWidth,
+		double sceneHeight, double width, double height, long seed)
+{
+	this.model = model;
+	this.target = target;
+	this.sceneWidth = sceneWidth;
+	this.sceneHeight = sceneHeight;
+	this.width = width;
+	this.height = height;
+	this.seed = seed;
+	generators = model.createGenerators(sceneWidth, sceneHeight,
+			new SplittableRandom(seed));
+	int count = model.getNumberOfTriangles();
+	batch = new TriangleBatch(count);
+	batch.resize(count);
+	if( generators.length == 0 )
+		startIndex(batch);
+	else
+		phase = Phase.GENERATE;
+}
+
+/**
+ * Constructor: a job to draw the current triangles of the model.
+ *
+ * @param model			the model
+ * @param target		the target on which to draw
+ * @param width			the width of the drawing
+ * @param height		the height of the drawing
+ */
+TrianglesJob(TrianglesModel model, RenderTarget target, double width,
+		double height)
+{
+	this.model = model;
+	this.target = target;
+	this.width = width;
+	this.height = height;
+	sceneWidth = 0.0;
+	sceneHeight = 0.0;
+	seed = 0L;
+	phase = Phase.BEGIN;
+}
+
+/**
+ * Cancel the job: nothing more is done, and the model is not changed (if it has
+ * not been already).
+ */
+public void cancel()
+{
+	cancelled = true;
+	phase = Phase.DONE;
+	batch = null;
+	sorted = null;
+	generators = null;
+	index = null;
+	culler = null;
+	scene = null;
+}
+
+/**
+ * @return				count of the slices of work done
+ */
+public long getSlices()
+{
+	return slices;
+}
+
+/**
+ * @return				true if the job has been cancelled
+ */
+public boolean isCancelled()
+{
+	return cancelled;
+}
+
+/**
+ * @return				true if the job is finished (or has been cancelled)
+ */
+public boolean isDone()
+{
+	return phase == Phase.DONE;
+}
+
+/**
+ * @return				true if the job is still making its triangles (and has not
+ *						yet started to draw them)
+ */
+public boolean isMaking()
+{
+	switch( phase )
+	{
+	case GENERATE:
+	case SORT:
+	case MERGE:
+	case INDEX:
+		return true;
+	default:
+		return false;
+	}
+}
+
+/**
+ * Change the size at which the triangles are to be drawn, while the job is still
+ * making them (the triangles made do not depend on that size).
+ *
+ * @param width			the width of the drawing
+ * @param height		the height of the drawing
+ */
+public void setDrawingSize(double width, double height)
+{
+	if( !isMaking() )
+		throw new IllegalStateException("The drawing has already been started");
+	this.width = width;
+	this.height = height;
+}
+
+/**
+ * Do slices of the job, as many as can be done in the given time (but at least
+ * one, if the job is not finished). A slice is not interrupted, so that the time
+ * may be exceeded by up to the time of one slice.
+ *
+ * @param budget		the time for which to work (nanoseconds)
+ * @return				true if the job is finished (or has been cancelled)
+ */
+public boolean step(long budget)
+{
+	long start = System.nanoTime();
+	while( phase != Phase.DONE )
+	{
+		slice();
+		++slices;
+		if( System.nanoTime() - start >= budget ) break;
+	}
+	return phase == Phase.DONE;
+}
+
+/**
+ * Decide whether the next triangle of one chunk comes before the next triangle of
+ * another in the merged order: the larger first, or, if of the same area, that of
+ * the earlier chunk.
+ *
+ * @param a				one chunk
+ * @param b				another chunk
+ * @return				true if the triangle of chunk a comes first
+ */
+private boolean before(int a, int b)
+{
+	double areaA = batch.getArea(nexts[a]);
+	double areaB = batch.getArea(nexts[b]);
+	return areaA > areaB || areaA == areaB && a < b;
+}
+
+/**
+ * @param c				a chunk
+ * @return				one beyond the index of the last triangle of that chunk
+ */
+private int chunkEnd(int c)
+{
+	return Math.min(batch.size(), (c + 1) * TrianglesModel.CHUNK_SIZE);
+}
+
+/**
+ * Restore the order of the heap, below the given position.
+ *
+ * @param i				the position in the heap of a chunk that may be out of
+ *						order
+ */
+private void siftDown(int i)
+{
+	int c = heap[i];
+	while( true )
+	{
+		int child = 2 * i + 1;
+		if( child >= heapSize ) break;
+		if( child + 1 < heapSize && before(heap[child + 1], heap[child]) ) ++child;
+		if( !before(heap[child], c) ) break;
+		heap[i] = heap[child];
+		i = child;
+	}
+	heap[i] = c;
+}
+
+/**
+ * Do one slice of the job.
+ */
+private void slice()
+{
+	switch( phase )
+	{
+	case GENERATE:
+		/* Part of the current chunk. */
+		int to = Math.min(chunkEnd(chunk), position + GENERATE_SLICE);
+		generators[chunk].generate(batch, position, to);
+		position = to;
+		if( position == chunkEnd(chunk) && ++chunk == generators.length )
+		{
+			chunk = 0;
+			phase = Phase.SORT;
+		}
+		break;
+
+	case SORT:
+		/* The current chunk. Once all are sorted, they are merged, unless there is
+		   only one. */
+		batch.sort(chunk * TrianglesModel.CHUNK_SIZE, chunkEnd(chunk));
+		if( ++chunk != generators.length ) break;
+		if( generators.length <= 1 )
+		{
+			startIndex(batch);
+			break;
+		}
+		sorted = new TriangleBatch(batch.size());
+		nexts = new int[generators.length];
+		heap = new int[generators.length];
+		for( int c = 0; c != generators.length; ++c )
+		{
+			nexts[c] = c * TrianglesModel.CHUNK_SIZE;
+			heap[c] = c;
+		}
+		heapSize = generators.length;
+		for( int i = heapSize / 2 - 1; i >= 0; --i ) siftDown(i);
+		phase = Phase.MERGE;
+		break;
+
+	case MERGE:
+		/* The next triangles, each taken from the chunk at the top of the heap. */
+		for( int k = 0; k != MERGE_SLICE && heapSize != 0; ++k )
+		{
+			int c = heap[0];
+			sorted.add(batch, nexts[c]++);
+			if( nexts[c] == chunkEnd(c) ) heap[0] = heap[--heapSize];
+			if( heapSize != 0 ) siftDown(0);
+		}
+		if( heapSize == 0 ) startIndex(sorted);
+		break;
+
+	case INDEX:
+		/* Once the index is complete, the new set of triangles becomes the scene
+		   of the model. */
+		if( !index.build(INDEX_SLICE) ) break;
+		model.setScene(new TriangleScene(sorted, index, generators, seed,
+				sceneWidth, sceneHeight));
+		batch = null;
+		generators = null;
+		index = null;
+		phase = Phase.BEGIN;
+		break;
+
+	case BEGIN:
+		/* The drawing is started, of the scene of the model as it is now (which
+		   is not changed, even if the model is given another scene meanwhile).
+		   Unless culling is turned off in the model, the triangles that can be
+		   seen are found (by a culler of this job's own) a part at a time, then
+		   drawn a part at a time. */
+		scene = model.getScene();
+		target.begin(width, height);
+		if( scene == null )
+		{
+			phase = Phase.DONE;
+			break;
+		}
+		sorted = scene.getTriangles();
+		position = 0;
+		if( model.getCuller() == null )
+		{
+			visibleCount = sorted.size();
+			phase = Phase.DRAW;
+			break;
+		}
+		culler = new TriangleCuller();
+		culler.start(sorted, width / scene.getWidth(), height / scene.getHeight(),
+				width, height);
+		phase = Phase.CULL;
+		break;
+
+	case CULL:
+		if( !culler.advance(CULL_SLICE) ) break;
+		visibleCount = culler.getVisibleCount();
+		phase = Phase.DRAW;
+		break;
+
+	case DRAW:
+		/* The next part of the triangles, in order. */
+		int last = Math.min(visibleCount, position + DRAW_SLICE);
+		sorted.draw(target, width / scene.getWidth(), height / scene.getHeight(),
+				culler == null ? null : culler.getVisible(), position, last);
+		position = last;
+		if( position == visibleCount ) phase = Phase.DONE;
+		break;
+
+	default:
+		break;
+	}
+}
+
+/**
+ * Start to index a new set of triangles.
+ *
+ * @param triangles		the triangles, from largest to smallest
+ */
+private void startIndex(TriangleBatch triangles)
+{
+	sorted = triangles;
+	index = TriangleIndex.incremental(triangles, sceneWidth, sceneHeight);
+	phase = Phase.INDEX;
+}
+
+/**
+ * What a job is doing.
+ */
+private enum Phase
+{
+	/** Generating the chunks of triangles. */
+	GENERATE,
+	/** Sorting each chunk. */
+	SORT,
+	/** Merging the sorted chunks. */
+	MERGE,
+	/** Indexing the triangles, and giving them to the model. */
+	INDEX,
+	/** Starting the drawing. */
+	BEGIN,
+	/** Finding the triangles that can be seen. */
+	CULL,
+	/** Drawing the triangles. */
+	DRAW,
+	/** Finished (or cancelled). */
+	DONE
+}
+}
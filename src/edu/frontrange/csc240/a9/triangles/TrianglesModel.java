@@ -1,21 +1,67 @@
 
 package edu.frontrange.csc240.a9.triangles;
 
-import java.util.Collections;
-import java.util.LinkedList;
+import edu.frontrange.csc240.a9.render.CanvasTarget;
+import edu.frontrange.csc240.a9.render.RenderTarget;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
  /**
  * Model, containing the current collection of displayed triangles.
+ * <p>
+ * The triangles are generated in parallel, in chunks of a fixed size, each chunk
+ * with its own source of random numbers split (in order) from a source with a
+ * given seed. The triangles for a seed are therefore always the same, however many
+ * threads generate them, so that a set of triangles can be made again from its
+ * seed. </p>
+ * <p>
+ * The triangles may be made for the size of the canvas, or as a scene of a unit
+ * square, independent of the size of any canvas. Either way, they are drawn scaled
+ * from the size for which they were made to the size of the drawing, so that a
+ * change of size needs only a new drawing, not new triangles. (As the triangles
+ * are made in proportion to the width and height, a scene scaled to a size has
+ * triangles just as would be made for that size.) </p>
+ * <p>
+ * The colors of the triangles may be limited to a palette of a given size, made
+ * anew (from the seed) for each set of triangles. Runs of triangles of the same
+ * color are then drawn together. </p>
+ * <p>
+ * An index is built over each set of triangles as it is made, so that the
+ * topmost triangle under a point (such as the mouse) can be found quickly. </p>
+ * <p>
+ * The triangles, their index, and all else made with them are held together as
+ * one scene, which is replaced as a whole. A scene may be made (by makeScene) on
+ * any thread, while the current scene is drawn, and then made the current scene;
+ * the model itself is to be used by one thread only (such as the JavaFX
+ * Application thread). </p>
  *
  * @author		Dr. Bruce K. Haddon, Instructor
- * @version		2.2, 2020-08-22, CSC-240 Assignment 9
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
  */
 public class TrianglesModel
 {
+/**
+ * The number of triangles generated as one task, each with its own source of
+ * random numbers. (Changing this changes the triangles made for each seed.)
+ */
+static final int CHUNK_SIZE = 4096;
+
+/**
+ * The color of the outline of a highlighted triangle.
+ */
+private static final Color HIGHLIGHT = Color.WHITE;
+
+/**
+ * The width of the outline of a highlighted triangle (pixels).
+ */
+private static final double HIGHLIGHT_WIDTH = 2.0;
+
 /**
  * The initial size of the canvas on which to draw the triangle
  */
@@ -26,15 +72,37 @@ private static final int INITIAL_SIZE = 400;
  */
 private final Color backGroundColor;
 
+/**
+ * The culler finding the triangles that can be seen, or null if all triangles are
+ * drawn.
+ */
+private TriangleCuller culler = new TriangleCuller();
+
 /**
  * The number of triangles to hold in the model.
  */
 private final int numberOfTriangles;
 
 /**
- * The list of triangles generated.
+ * The number of colors to which the colors of the triangles are limited, or zero
+ * if they are not limited.
+ */
+private int paletteSize;
+
+/**
+ * The pool of threads generating the triangles.
+ */
+private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+/**
+ * The current triangles, with their index, or null if none have been made.
  */
-private List<RandomTriangle> triangles;
+private TriangleScene scene;
+
+/**
+ * Source of the seeds used when none is given.
+ */
+private SplittableRandom seeds = new SplittableRandom();
 
 /**
  * Create the model.
@@ -52,29 +120,135 @@ public TrianglesModel(int numberOfTriangles, Color backGroundColor)
 }
 
 /**
- * Create the needed triangles within the given dimensions.
+ * Create the needed triangles as a scene of a unit square (that is, independent of
+ * the size of the canvas), from a new seed.
+ */
+public void createScene()
+{
+	createScene(seeds.nextLong());
+}
+
+/**
+ * Create the needed triangles as a scene of a unit square (that is, independent of
+ * the size of the canvas), from the given seed.
+ *
+ * @param seed			the seed from which the triangles are made
+ */
+public void createScene(long seed)
+{
+	setScene(makeScene(1.0, 1.0, seed));
+}
+
+/**
+ * Create the needed triangles within the given dimensions, from a new seed.
  *
  * @param width			width of the canvas on which to paint the triangles
  * @param height		height of the canvas on which to paint the triangles
  */
 public void createTriangles(double width, double height)
 {
-	/* Reset the list of triangles. */
-	triangles = new LinkedList<>();
+	setScene(makeScene(width, height, seeds.nextLong()));
+}
 
-	/* For each of the required number of triangles ... */
-	for( int i = 0; i != numberOfTriangles; ++i )
+/**
+ * Create the needed triangles within the given dimensions, from the given seed.
+ * The same seed and dimensions always give the same triangles.
+ *
+ * @param width			width of the canvas on which to paint the triangles
+ * @param height		height of the canvas on which to paint the triangles
+ * @param seed			the seed from which the triangles are made
+ */
+public void createTriangles(double width, double height, long seed)
+{
+	setScene(makeScene(width, height, seed));
+}
+
+/**
+ * Make a scene of the needed triangles within the given dimensions, from the given
+ * seed, without changing the model: the scene is the same as createTriangles would
+ * make current. This may be done on any thread (the chunks are generated on the
+ * pool of the model), while the current scene is drawn, as long as the palette
+ * size and the pool are not changed meanwhile.
+ *
+ * @param width			width of the canvas on which to paint the triangles
+ * @param height		height of the canvas on which to paint the triangles
+ * @param seed			the seed from which the triangles are made
+ * @return				the scene, to be made current by setScene
+ */
+@SuppressWarnings("serial")
+public TriangleScene makeScene(double width, double height, long seed)
+{
+	/* Reset the triangles, with room for all of them. */
+	TriangleBatch batch = new TriangleBatch(numberOfTriangles);
+	batch.resize(numberOfTriangles);
+
+	/* Each chunk of triangles is made by a generator of its own. */
+	SplittableRandom source = new SplittableRandom(seed);
+	TriangleGenerator[] generators = createGenerators(width, height, source);
+	List<RecursiveAction> tasks = new ArrayList<>(generators.length);
+	for( int chunk = 0; chunk != generators.length; ++chunk )
 	{
-		/* Get the triangle shape, with a size larger than the minimum
-		   size, and no larger than the largest size, and add it to the
-		   collection. */
-		RandomTriangle triangle = new RandomTriangle(width, height, backGroundColor);
-		triangles.add(triangle);
+		TriangleGenerator chunkGenerator = generators[chunk];
+		final int from = chunk * CHUNK_SIZE;
+		final int to = Math.min(numberOfTriangles, from + CHUNK_SIZE);
+		tasks.add(new RecursiveAction()
+		{
+			@Override
+			protected void compute()
+			{
+				chunkGenerator.generate(batch, from, to);
+			}
+		});
 	}
+	pool.invoke(new RecursiveAction()
+	{
+		@Override
+		protected void compute()
+		{
+			invokeAll(tasks);
+		}
+	});
 
 	/* Sort triangles from largest to smallest, to ensure all triangles can be
 	   seen. */
-	Collections.sort(triangles);
+	batch.sort();
+	return new TriangleScene(batch, new TriangleIndex(batch, width, height),
+			generators, seed, width, height);
+}
+
+/**
+ * Start to create the needed triangles within the given dimensions, from a new
+ * seed, and to draw them on the given target, as a job done a little at a time.
+ * The triangles are the same as createTriangles would make from the same seed.
+ * Until the job has made all the triangles, the model keeps the triangles it had.
+ *
+ * @param target		the target on which to draw
+ * @param width			width of the target on which to paint the triangles
+ * @param height		height of the target on which to paint the triangles
+ * @return				the job, to be done by calls of its step method
+ */
+public TrianglesJob createTrianglesProgressively(RenderTarget target,
+		double width, double height)
+{
+	return new TrianglesJob(this, target, width, height, width, height,
+			seeds.nextLong());
+}
+
+/**
+ * Start to create the needed triangles as a scene of a unit square, from a new
+ * seed, and to draw them on the given target, as a job done a little at a time
+ * (as createTrianglesProgressively).
+ *
+ * @param target		the target on which to draw
+ * @param width			width of the target on which to paint the triangles
+ * @param height		height of the target on which to paint the triangles
+ * @return				the job, to be done by calls of its step method
+ */
+public TrianglesJob createSceneProgressively(RenderTarget target, double width,
+		double height)
+{
+	return new TrianglesJob(this, target, 1.0, 1.0, width, height,
+			seeds.nextLong());
 }
 
 /**
@@ -89,25 +263,243 @@ public void createTriangles(double width, double height)
  */
 public void draw(Canvas canvas, double width, double height)
 {
-	/* Get the graphics context for this canvas. */
-	GraphicsContext g = canvas.getGraphicsContext2D();
-	/* Clear out the previous drawing. */
-	g.clearRect(0.0, 0.0, canvas.getWidth(), canvas.getHeight());
+	draw(new CanvasTarget(canvas), width, height);
+}
+
+/**
+ * Draw the current state of the model on the given target (which may be a canvas,
+ * or may need no display at all).
+ *
+ * @param target		the target on which to draw
+ * @param width			the desired width of that target
+ * @param height		the desired height of that target
+ */
+public void draw(RenderTarget target, double width, double height)
+{
+	/* Clear out the previous drawing, and set the new desired size. */
+	target.begin(width, height);
+	if( scene == null ) return;
 
-	/* Set the new desired size for the canvas. */
+	/* Draw each of the triangles on the target, in order, placing each at the
+	   randomly computed origin, scaled from the size for which the triangles were
+	   made. Unless culling is turned off, those that cannot be seen (as they are
+	   off the target, or hidden by those drawn after them) are not drawn. */
+	TriangleBatch triangles = scene.getTriangles();
+	double scaleX = width / scene.getWidth();
+	double scaleY = height / scene.getHeight();
+	if( culler == null )
+	{
+		triangles.draw(target, scaleX, scaleY);
+		return;
+	}
+	culler.cull(triangles, scaleX, scaleY, width, height);
+	triangles.draw(target, scaleX, scaleY, culler.getVisible(),
+			culler.getVisibleCount());
+}
+
+/**
+ * Draw the outline of one of the current triangles (as found by findTriangle) on a
+ * canvas of its own, laid over a drawing of the triangles, so that the triangle
+ * can be highlighted without the triangles being drawn again.
+ *
+ * @param canvas		the canvas on which to draw the outline
+ * @param triangle		the index of the triangle, or -1 for no outline
+ * @param width			the width of the drawing
+ * @param height		the height of the drawing
+ */
+public void drawHighlight(Canvas canvas, int triangle, double width, double height)
+{
 	canvas.setWidth(width);
 	canvas.setHeight(height);
+	GraphicsContext g = canvas.getGraphicsContext2D();
+	g.clearRect(0.0, 0.0, width, height);
+	if( triangle < 0 || scene == null ) return;
+	TriangleBatch triangles = scene.getTriangles();
+	double[] xPoints = new double[RandomTriangle.TRIANGLE_POINTS];
+	double[] yPoints = new double[RandomTriangle.TRIANGLE_POINTS];
+	for( int i = 0; i != xPoints.length; ++i )
+	{
+		xPoints[i] = triangles.getX(triangle, i) * width / scene.getWidth();
+		yPoints[i] = triangles.getY(triangle, i) * height / scene.getHeight();
+	}
+	g.setStroke(HIGHLIGHT);
+	g.setLineWidth(HIGHLIGHT_WIDTH);
+	g.strokePolygon(xPoints, yPoints, xPoints.length);
+}
+
+/**
+ * Find the topmost triangle (the last drawn) holding a point of a drawing of the
+ * current triangles.
+ *
+ * @param x				the x-coordinate of the point in the drawing
+ * @param y				the y-coordinate of the point in the drawing
+ * @param width			the width of the drawing
+ * @param height		the height of the drawing
+ * @return				the index of the triangle in getTriangles(), or -1 if
+ *						there is none (or no triangles have been made)
+ */
+public int findTriangle(double x, double y, double width, double height)
+{
+	if( scene == null ) return -1;
+	return scene.getIndex().find(x * scene.getWidth() / width,
+			y * scene.getHeight() / height);
+}
 
-	/* Get the given number of triangles, and draw each of them on the
-	   GraphicsContext of the canvas, placing each at the randomly computed
-	   origin.
+/**
+ * Start to draw the current triangles on the given target, as a job done a little
+ * at a time.
+ *
+ * @param target		the target on which to draw
+ * @param width			the desired width of that target
+ * @param height		the desired height of that target
+ * @return				the job, to be done by calls of its step method
+ */
+public TrianglesJob drawProgressively(RenderTarget target, double width,
+		double height)
+{
+	return new TrianglesJob(this, target, width, height);
+}
 
-	   The following statement (using a lambda expression) is equivalent to
-	   this statement (using an enhanced for loop).
+/**
+ * The culler used in the last drawing, made available so that the counts of the
+ * triangles not drawn can be observed.
+ *
+ * @return				the culler, or null if culling is turned off
+ */
+public TriangleCuller getCuller()
+{
+	return culler;
+}
 
-	   for( RandomTriangle triangle : triangles ) triangle.draw(g); */
+/**
+ * Turn on or off the culling of triangles that cannot be seen (it is on by
+ * default). The drawing is the same either way.
+ *
+ * @param culling		true if triangles that cannot be seen are not to be drawn
+ */
+public void setCulling(boolean culling)
+{
+	if( !culling )
+		culler = null;
+	else if( culler == null )
+		culler = new TriangleCuller();
+}
 
-	triangles.forEach((triangle) ->	triangle.draw(g) );
+/**
+ * The index over the current triangles, made available so that its size can be
+ * observed.
+ *
+ * @return				the index, or null if no triangles have been made
+ */
+public TriangleIndex getIndex()
+{
+	return scene == null ? null : scene.getIndex();
+}
+
+/**
+ * @return				true if triangles have been made
+ */
+public boolean hasTriangles()
+{
+	return scene != null;
+}
+
+/**
+ * @return				the seed from which the current triangles were made (zero
+ *						if none have been made)
+ */
+public long getSeed()
+{
+	return scene == null ? 0L : scene.getSeed();
+}
+
+/**
+ * @return				the current triangles, with their index, or null if none
+ *						have been made
+ */
+public TriangleScene getScene()
+{
+	return scene;
+}
+
+/**
+ * Make a scene (as made by makeScene, perhaps on another thread) the current
+ * scene, in place of the one before. The triangles are not drawn again.
+ *
+ * @param scene			the scene
+ */
+public void setScene(TriangleScene scene)
+{
+	this.scene = scene;
+}
+
+/**
+ * Start the source of the seeds used when none is given again, from the given
+ * seed, so that the sets of triangles made from now on are the same on every run.
+ *
+ * @param seed			the seed from which the seeds follow
+ */
+public void setSeed(long seed)
+{
+	seeds = new SplittableRandom(seed);
+}
+
+/**
+ * Take a new seed from the source of seeds of the model, for a scene to be made
+ * (perhaps on another thread) by makeScene.
+ *
+ * @return				the seed
+ */
+public long newSeed()
+{
+	return seeds.nextLong();
+}
+
+/**
+ * @return				the number of colors to which the colors of the triangles
+ *						are limited, or zero if they are not limited
+ */
+public int getPaletteSize()
+{
+	return paletteSize;
+}
+
+/**
+ * Limit the colors of the triangles made from now on to a palette of the given
+ * number of colors (each not too near to the background), or remove the limit.
+ *
+ * @param paletteSize	the number of colors (not more than
+ *						TriangleGenerator.MAXIMUM_PALETTE), or zero for colors that
+ *						are not limited
+ */
+public void setPaletteSize(int paletteSize)
+{
+	if( paletteSize < 0 )
+		throw new IllegalArgumentException("Palette size cannot be negative");
+	if( paletteSize > TriangleGenerator.MAXIMUM_PALETTE )
+		throw new IllegalArgumentException("Palette size cannot be more than " +
+				TriangleGenerator.MAXIMUM_PALETTE);
+	this.paletteSize = paletteSize;
+}
+
+/**
+ * Set the pool of threads that generates the triangles (by default, the common
+ * pool). The triangles made do not depend on the pool.
+ *
+ * @param pool			the pool
+ */
+public void setPool(ForkJoinPool pool)
+{
+	this.pool = pool;
+}
+
+/**
+ * @return				the triangles (sorted from largest to smallest), or null
+ *						if none have been made
+ */
+public TriangleBatch getTriangles()
+{
+	return scene == null ? null : scene.getTriangles();
 }
 
 /**
@@ -119,4 +511,41 @@ public double getInitialCanvasSize()
 {
 	return INITIAL_SIZE;
 }
+
+/**
+ * Make the generators for the chunks of a set of triangles. Each chunk of
+ * triangles is made by a generator of its own, whose source of random numbers is
+ * split from the source for the seed. The splitting is done here, in order, so that
+ * each chunk has the same source whichever thread makes it (or whether made at
+ * once or a little at a time).
+ *
+ * @param width			width for which the triangles are made
+ * @param height		height for which the triangles are made
+ * @param source		the source of random numbers for the seed
+ * @return				the generators, one for each chunk of CHUNK_SIZE triangles
+ */
+TriangleGenerator[] createGenerators(double width, double height,
+		SplittableRandom source)
+{
+	int[] palette = paletteSize == 0 ? null :
+			new TriangleGenerator(width, height, backGroundColor, source.split())
+					.createPalette(paletteSize);
+	int chunks = (numberOfTriangles + CHUNK_SIZE - 1) / CHUNK_SIZE;
+	TriangleGenerator[] generators = new TriangleGenerator[chunks];
+	for( int chunk = 0; chunk != chunks; ++chunk )
+	{
+		generators[chunk] = new TriangleGenerator(width, height, backGroundColor,
+				source.split());
+		generators[chunk].setPalette(palette);
+	}
+	return generators;
+}
+
+/**
+ * @return				the number of triangles to hold in the model
+ */
+int getNumberOfTriangles()
+{
+	return numberOfTriangles;
+}
 }
@@ -0,0 +1,274 @@
+
+package edu.frontrange.csc240.a9.triangles;
+
+import java.util.HashMap;
+import java.util.Map;
+import javafx.scene.paint.Color;
+
+/**
+ * The options, given on the command line, that choose the triangles to be made:
+ * their number, the seed from which they are made, the size of the drawing, the
+ * background color, and the size of the palette. The same options are used for
+ * the window and for the stress test (which needs no display).
+ * <p>
+ * An option is given as {@code --name=value}. A value that is not valid is
+ * reported (on the standard error), and the default used in its place. </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
+ */
+public class TrianglesOptions
+{
+/**
+ * The name of the option giving the background color (any form accepted by
+ * Color.web, such as a name or #rrggbb).
+ */
+public static final String BACKGROUND = "background";
+
+/**
+ * The name of the option giving the number of triangles.
+ */
+public static final String COUNT = "count";
+
+/**
+ * The background color, if none is given.
+ */
+public static final Color DEFAULT_BACKGROUND = Color.BLACK;
+
+/**
+ * The number of triangles, if none is given.
+ */
+public static final int DEFAULT_COUNT = 10;
+
+/**
+ * The name of the option giving the number of colors to which the colors of the
+ * triangles are limited (not more than TriangleGenerator.MAXIMUM_PALETTE).
+ */
+public static final String PALETTE = "palette";
+
+/**
+ * The name of the option giving the seed from which the triangles are made.
+ */
+public static final String SEED = "seed";
+
+/**
+ * The name of the option giving the size of the drawing, as WIDTHxHEIGHT, or as
+ * one number for a square.
+ */
+public static final String SIZE = "size";
+
+/**
+ * The background color.
+ */
+private Color background = DEFAULT_BACKGROUND;
+
+/**
+ * The number of triangles.
+ */
+private int count = DEFAULT_COUNT;
+
+/**
+ * The height of the drawing, or NaN if not given.
+ */
+private double height = Double.NaN;
+
+/**
+ * The number of colors of the palette, or zero if the colors are not limited.
+ */
+private int palette;
+
+/**
+ * The seed from which the triangles are made (if seeded is true).
+ */
+private long seed;
+
+/**
+ * True if a seed was given.
+ */
+private boolean seeded;
+
+/**
+ * The width of the drawing, or NaN if not given.
+ */
+private double width = Double.NaN;
+
+/**
+ * Constructor: the options from the named parameters (as given by
+ * Application.Parameters.getNamed, or by named).
+ *
+ * @param named			the values of the options, by name
+ */
+public TrianglesOptions(Map<String, String> named)
+{
+	String value = named.get(COUNT);
+	if( value != null )
+		try
+		{
+			int number = Integer.parseInt(clean(value));
+			if( number < 0 )
+				throw new IllegalArgumentException("cannot be negative");
+			count = number;
+		} catch( IllegalArgumentException ex )
+		{
+			ignored("Triangle count", value, ex);
+		}
+
+	value = named.get(SEED);
+	if( value != null )
+		try
+		{
+			seed = Long.decode(clean(value));
+			seeded = true;
+		} catch( IllegalArgumentException ex )
+		{
+			ignored("Seed", value, ex);
+		}
+
+	value = named.get(SIZE);
+	if( value != null )
+		try
+		{
+			String[] sides = clean(value).split("[xX]", -1);
+			if( sides.length > 2 )
+				throw new IllegalArgumentException("expected WIDTHxHEIGHT");
+			double w = Double.parseDouble(sides[0]);
+			double h = sides.length == 1 ? w : Double.parseDouble(sides[1]);
+			if( !(w >= 1.0 && h >= 1.0 && w < Integer.MAX_VALUE &&
+					h < Integer.MAX_VALUE) )
+				throw new IllegalArgumentException("must be at least one pixel");
+			width = w;
+			height = h;
+		} catch( IllegalArgumentException ex )
+		{
+			ignored("Size", value, ex);
+		}
+
+	value = named.get(BACKGROUND);
+	if( value != null )
+		try
+		{
+			background = Color.web(value.trim());
+		} catch( IllegalArgumentException ex )
+		{
+			ignored("Background color", value, ex);
+		}
+
+	value = named.get(PALETTE);
+	if( value != null )
+		try
+		{
+			int number = Integer.parseInt(clean(value));
+			if( number < 0 )
+				throw new IllegalArgumentException("cannot be negative");
+			if( number > TriangleGenerator.MAXIMUM_PALETTE )
+				throw new IllegalArgumentException("cannot be more than " +
+						TriangleGenerator.MAXIMUM_PALETTE);
+			palette = number;
+		} catch( IllegalArgumentException ex )
+		{
+			ignored("Palette size", value, ex);
+		}
+}
+
+/**
+ * The named options of a command line, in the same form as
+ * Application.Parameters.getNamed gives them: each argument of the form
+ * {@code --name=value}. Any other arguments are not included.
+ *
+ * @param args			the arguments of the command line
+ * @return				the values of the options, by name
+ */
+public static Map<String, String> named(String... args)
+{
+	Map<String, String> named = new HashMap<>();
+	for( String arg : args )
+	{
+		int equals = arg.indexOf('=');
+		if( arg.startsWith("--") && equals > 2 )
+			named.put(arg.substring(2, equals), arg.substring(equals + 1));
+	}
+	return named;
+}
+
+/**
+ * @return				the background color
+ */
+public Color getBackground()
+{
+	return background;
+}
+
+/**
+ * @return				the number of triangles
+ */
+public int getCount()
+{
+	return count;
+}
+
+/**
+ * @return				the height of the drawing, or NaN if not given
+ */
+public double getHeight()
+{
+	return height;
+}
+
+/**
+ * @return				the number of colors of the palette, or zero if the colors
+ *						are not limited
+ */
+public int getPalette()
+{
+	return palette;
+}
+
+/**
+ * @return				the seed from which the triangles are made (only if
+ *						hasSeed)
+ */
+public long getSeed()
+{
+	return seed;
+}
+
+/**
+ * @return				the width of the drawing, or NaN if not given
+ */
+public double getWidth()
+{
+	return width;
+}
+
+/**
+ * @return				true if a seed was given
+ */
+public boolean hasSeed()
+{
+	return seeded;
+}
+
+/**
+ * Remove the spaces, underscores and commas that may be used to group the digits
+ * of a number.
+ *
+ * @param value			the value as given
+ * @return				the value without those characters
+ */
+private static String clean(String value)
+{
+	return value.replaceAll("\\s|_|,", "");
+}
+
+/**
+ * Report a value that is not valid, and is ignored.
+ *
+ * @param what			what the value was to be
+ * @param value			the value as given
+ * @param ex			the exception showing what was wrong
+ */
+private static void ignored(String what, String value, Exception ex)
+{
+	System.err.println(what + " " + value + " ignored: " + ex.getMessage());
+}
+}
@@ -0,0 +1,185 @@
+
+package edu.frontrange.csc240.a9.triangles;
+
+import edu.frontrange.csc240.a9.render.RasterTarget;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.SplittableRandom;
+import javafx.scene.paint.Color;
+
+/**
+ * A stress test of the making and drawing of triangles, without a display: a
+ * number of sets of triangles are made, one after the other, and each is drawn
+ * into an array of pixels. The rates at which triangles are made and drawn, the
+ * rate at which attempts to make them are rejected, and the memory allocated, are
+ * reported, so that machines can be compared, and changes that make the program
+ * slower can be found.
+ * <p>
+ * The sets are made from seeds that follow from one seed (given, or chosen and
+ * reported), so that a run can be repeated exactly. The memory allocated is that
+ * counted by the threads alive at the end of the run (which include those of the
+ * pool generating the triangles); it is not reported if the virtual machine does
+ * not count it. </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
+ */
+public class TrianglesStress
+{
+/**
+ * The name of the option giving the number of sets of triangles to make and draw
+ * (and asking for the stress test, rather than a window).
+ */
+public static final String STRESS = "stress";
+
+/**
+ * The size of the drawing (each way), if none is given.
+ */
+private static final double DEFAULT_SIZE = 400.0;
+
+/**
+ * Count of nanoseconds in a second.
+ */
+private static final double NANOSECONDS = 1.0E9;
+
+/**
+ * Constructor: not used (there are only static methods).
+ */
+private TrianglesStress() { }
+
+/**
+ * Run the stress test, as directed by the command line: {@code --stress=n}, the
+ * number of sets of triangles, and the options of TrianglesOptions (the number of
+ * triangles, the seed, the size of the drawing, the background and the palette).
+ *
+ * @param args			the options
+ * @return				zero if the test was run, otherwise not zero
+ */
+public static int commandLine(String... args)
+{
+	Map<String, String> named = TrianglesOptions.named(args);
+	int scenes;
+	try
+	{
+		scenes = Integer.parseInt(named.getOrDefault(STRESS, "")
+				.replaceAll("\\s|_|,", ""));
+		if( scenes <= 0 ) throw new IllegalArgumentException("must be positive");
+	} catch( IllegalArgumentException ex )
+	{
+		System.err.println("Use: --stress=scenes [--count=n] [--seed=s] " +
+				"[--size=WIDTHxHEIGHT] [--background=color] [--palette=n] (" +
+				ex.getMessage() + ")");
+		return 2;
+	}
+	TrianglesOptions options = new TrianglesOptions(named);
+	double width = Double.isNaN(options.getWidth()) ? DEFAULT_SIZE :
+			options.getWidth();
+	double height = Double.isNaN(options.getHeight()) ? DEFAULT_SIZE :
+			options.getHeight();
+	long seed = options.hasSeed() ? options.getSeed() :
+			new SplittableRandom().nextLong();
+
+	TrianglesModel model = new TrianglesModel(options.getCount(),
+			options.getBackground());
+	model.setPaletteSize(options.getPalette());
+	model.setSeed(seed);
+	RasterTarget target = new RasterTarget(argb(options.getBackground()));
+	System.out.printf("Stress: %d scenes of %d triangles, %.0f x %.0f pixels, " +
+			"seed %d%n", scenes, options.getCount(), width, height, seed);
+
+	/* Each set is made, then drawn, and each is timed. */
+	long allocatedBefore = allocated();
+	long makeTime = 0L;
+	long drawTime = 0L;
+	long bestMake = Long.MAX_VALUE;
+	long bestDraw = Long.MAX_VALUE;
+	long attempts = 0L;
+	long rejections = 0L;
+	long drawn = 0L;
+	for( int scene = 0; scene != scenes; ++scene )
+	{
+		long start = System.nanoTime();
+		model.createTriangles(width, height);
+		long made = System.nanoTime();
+		model.draw(target, width, height);
+		long done = System.nanoTime();
+		makeTime += made - start;
+		drawTime += done - made;
+		bestMake = Math.min(bestMake, made - start);
+		bestDraw = Math.min(bestDraw, done - made);
+		attempts += model.getScene().getAttempts();
+		rejections += model.getScene().getRejections();
+		drawn += model.getCuller().getVisibleCount();
+	}
+	long allocatedAfter = allocated();
+
+	double triangles = (double) scenes * options.getCount();
+	System.out.printf("Make: %.0f triangles/s (best scene %.0f), %.1f ms per " +
+			"scene%n", rate(triangles, makeTime),
+			rate(options.getCount(), bestMake), makeTime / 1.0E6 / scenes);
+	System.out.printf("Rejection rate: %.4f (%d of %d attempts)%n",
+			attempts == 0L ? 0.0 : (double) rejections / attempts, rejections,
+			attempts);
+	System.out.printf("Draw: %.0f triangles/s (best scene %.0f), %.1f ms per " +
+			"scene, %.1f%% drawn (not culled)%n", rate(triangles, drawTime),
+			rate(options.getCount(), bestDraw), drawTime / 1.0E6 / scenes,
+			triangles == 0.0 ? 0.0 : 100.0 * drawn / triangles);
+	if( allocatedBefore < 0L || allocatedAfter < 0L )
+		System.out.println("Allocated: not counted by this virtual machine");
+	else
+	{
+		long bytes = allocatedAfter - allocatedBefore;
+		System.out.printf("Allocated: %.1f MB, %.1f MB per scene, %.0f bytes " +
+				"per triangle%n", bytes / 1.0E6, bytes / 1.0E6 / scenes,
+				triangles == 0.0 ? 0.0 : bytes / triangles);
+	}
+	return 0;
+}
+
+/**
+ * The total of the memory allocated by the threads now alive.
+ *
+ * @return				the count of bytes, or -1 if not counted
+ */
+private static long allocated()
+{
+	ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+	if( !(threads instanceof com.sun.management.ThreadMXBean) ) return -1L;
+	com.sun.management.ThreadMXBean counting =
+			(com.sun.management.ThreadMXBean) threads;
+	if( !counting.isThreadAllocatedMemorySupported() ) return -1L;
+	if( !counting.isThreadAllocatedMemoryEnabled() )
+		counting.setThreadAllocatedMemoryEnabled(true);
+	long total = 0L;
+	for( long bytes : counting.getThreadAllocatedBytes(threads.getAllThreadIds()) )
+		if( bytes > 0L ) total += bytes;
+	return total;
+}
+
+/**
+ * The ARGB value of a color.
+ *
+ * @param color			the color
+ * @return				the ARGB value
+ */
+private static int argb(Color color)
+{
+	return (int) Math.round(color.getOpacity() * 255.0) << 24 |
+			(int) Math.round(color.getRed() * 255.0) << 16 |
+			(int) Math.round(color.getGreen() * 255.0) << 8 |
+			(int) Math.round(color.getBlue() * 255.0);
+}
+
+/**
+ * A rate per second.
+ *
+ * @param count			the count of things done
+ * @param nanoseconds	the time taken (nanoseconds)
+ * @return				the count per second (zero if no time was taken)
+ */
+private static double rate(double count, long nanoseconds)
+{
+	return nanoseconds <= 0L ? 0.0 : count * NANOSECONDS / nanoseconds;
+}
+}
@@ -7,23 +7,17 @@ import javafx.scene.canvas.Canvas;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.Pane;
-import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 
 /**
  * A Window for displaying the triangles, with a label for the window.
  *
  * @author		Dr. Bruce K. Haddon, Instructor
- * @version		2.2, 2020-08-22, CSC-240 Assignment 9
+ * @version		2.3, 2026-10-18, CSC-240 Assignment 9
  */
 @SuppressWarnings("serial")
 public class TrianglesView extends Application
 {
-/**
- * BackgroundColor
- */
-private static final Color BACKGROUND_COLOR = Color.BLACK;
-
 /**
  * The controller for this view.
  */
@@ -59,23 +53,27 @@ public Scene getScene()
 @Override
 public void start(Stage stage)
 {
+	/* The options given on the command line, which include the background
+	   color. */
+	TrianglesOptions options = new TrianglesOptions(getParameters().getNamed());
+
 	/* Establish a root node. */
 	Pane root = new Pane();
 	root.setBackground(new Background(
-								new BackgroundFill(BACKGROUND_COLOR, null, null)));
+						new BackgroundFill(options.getBackground(), null, null)));
 	/* The scene contains the root. */
 	scene = new Scene(root);
 	/* ... and the stage (window) contains the scene. */
 	stage.setScene(scene);
 
 	/* Create and remember the controller. */
-	this.controller = new TrianglesController(this, BACKGROUND_COLOR);
+	this.controller = new TrianglesController(this, options);
 	controller.initialize(null, null);
 
-	/* Get the canvas, and then add that component to the window as its only
-	   content. */
+	/* Get the canvas, and then add that component to the window as its
+	   content, with the canvas showing the highlighted triangle over it. */
 	Canvas canvas = controller.getCanvas();
-	root.getChildren().add(canvas);
+	root.getChildren().addAll(canvas, controller.getHighlight());
 	root.setPrefSize(canvas.getWidth(), canvas.getHeight());
 
 	/* Title the window. */
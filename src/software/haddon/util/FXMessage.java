@@ -36,18 +36,18 @@ package software.haddon.util;
 import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Semaphore;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.beans.value.ObservableValue;
-import javafx.embed.swing.JFXPanel;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
@@ -59,8 +59,7 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.DialogPane;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.control.TextArea;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextInputDialog;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
@@ -71,10 +70,10 @@ import javafx.stage.FileChooser;
 import javafx.stage.FileChooser.ExtensionFilter;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import javafx.stage.WindowEvent;
 import javafx.util.Duration;
 
 import static java.lang.System.exit;
-import static java.lang.System.lineSeparator;
 import static java.util.Objects.nonNull;
 import static javafx.scene.control.Alert.AlertType.CONFIRMATION;
 import static javafx.scene.control.Alert.AlertType.ERROR;
@@ -86,13 +85,24 @@ import static javafx.scene.control.ButtonType.FINISH;
  * windows, with controls to ensure that multiple messages do not display at the
  * same time. The dialog or window is always shown on the Platform thread. There is
  * no return until there has been a response (or, for a temporary message, the time
- * elapses, or for a window, an insertion has been made), unless (if there
- * is a {@code wait} parameter), in which case, if this is set to false, and there
- * is another message showing, return is immediate (with some defined default
- * result).
+ * elapses), unless (if there is a {@code wait} parameter), in which case, if this
+ * is set to false, and there is another message showing, return is immediate (with
+ * some defined default result). Messages added to a scrolling window are shown at
+ * the next pulse, without waiting.
+ * <p>
+ * Each of the dialogs asking for a response also has a variant (named with
+ * {@code Async}) that returns at once, with a CompletableFuture that is completed
+ * with the response when the dialog is dismissed. Each such dialog has its own
+ * future, and such dialogs do not wait for any other message, so that any number
+ * may be showing at once, while the threads that asked for them go on with their
+ * work. Cancelling the future closes the dialog. </p>
+ * <p>
+ * Notifications (shown for a given time, as by temporary) may also be posted
+ * without waiting, to be shown at a limited rate, with repeated notifications
+ * merged (see notification). </p>
  *
  * @author		Dr. Bruce K. Haddon, Instructor
- * @version		8.0, 2021-03-29
+ * @version		8.1, 2026-10-18
  */
 @SuppressWarnings("ResultOfObjectAllocationIgnored")
 public class FXMessage
@@ -112,6 +122,12 @@ public static final int NO = -1;
  */
 public static final int OK = +1;
 
+/**
+ * The number of options above which options (and optionsAsync) show a searchable
+ * list (an OptionPicker) in place of a dropdown.
+ */
+public static final int PICKER_OPTIONS = 100;
+
 /**
  * Queue used for button results. This is a static final because is can be.
  */
@@ -151,9 +167,9 @@ private static final Semaphore MESSAGE_SHOWING = new Semaphore(1);
 private static final Semaphore SCROLL_WINDOW_IN_USE = new Semaphore(1);
 
 /**
- * A JFXPanel to ensure that JavaFX is running. Initialized once if needed.
+ * The notifier showing the notifications. Initialized once if needed.
  */
-private static JFXPanel jFXPanel = null;
+private static Notifier notifier = null;
 
 /**
  * Offset for messages relative to bottom of owner.
@@ -364,6 +380,23 @@ public static boolean confirmation(final String title, final String message,
 	return optional.isPresent() ? optional.get() == ButtonType.OK : false;
 }
 
+/**
+ * Show a dialog asking for an "OK/CANCEL" response from the user, without waiting
+ * for the response, or for any other message to be dismissed.
+ *
+ * @param title			title for the input dialog
+ * @param message		to the user as to what input is required
+ * @return				future completed with true if the message is confirmed,
+ *						otherwise false
+ */
+public static CompletableFuture<Boolean> confirmationAsync(final String title,
+		final String message)
+{
+	return showAsync(() -> new Alert(CONFIRMATION, message,
+			ButtonType.OK, ButtonType.CANCEL), title,
+			(button) -> button == ButtonType.OK);
+}
+
 /**
  * Called when a "OK/NO/CANCEL" response is required from the user. If the dialog
  * cannot be displayed (perhaps due to another dialog already being shown), and wait
@@ -406,6 +439,28 @@ public static int decision(final String title, final String message,
 			optional.get() == ButtonType.OK ? OK : NO) : NO;
 }
 
+/**
+ * Show a dialog asking for an "OK/NO/CANCEL" response from the user, without
+ * waiting for the response, or for any other message to be dismissed.
+ *
+ * @param title			title for the input dialog
+ * @param message		to the user as to what input is required
+ * @return				future completed with OK if the message is confirmed, NO if
+ *						not confirmed, otherwise (cancelled, or dismissed, as a
+ *						dismissal is taken as the CANCEL button) CANCELED
+ */
+public static CompletableFuture<Integer> decisionAsync(final String title,
+		final String message)
+{
+	if( message == null )
+		throw new IllegalArgumentException("Null message not valid here");
+
+	return showAsync(() -> new Alert(CONFIRMATION, message,
+			ButtonType.OK, ButtonType.NO, ButtonType.CANCEL), title,
+			(button) -> button == ButtonType.CANCEL ? CANCELED :
+					button == ButtonType.OK ? OK : NO);
+}
+
 /**
  * Called when the view should display an message of a particular type. The message
  * will be displayed until the user acknowledges the message (by clicking the OK
@@ -446,6 +501,24 @@ public static void display(AlertType alertType, String title, String message,
 	readyAgain(MESSAGE_SHOWING);
 }
 
+/**
+ * Display a message of a particular type, until the user acknowledges it, without
+ * waiting for that, or for any other message to be dismissed.
+ *
+ * @param alertType		ERROR, INFORMATION, NONE, WARNING
+ * @param title			title to appear with the message
+ * @param message		the message to display
+ * @return				future completed when the message is acknowledged
+ */
+public static CompletableFuture<Void> displayAsync(AlertType alertType,
+		String title, String message)
+{
+	return showAsync(() -> alertType == NONE ?
+			new Alert(alertType, message,
+					new ButtonType("WAIT", ButtonData.CANCEL_CLOSE)) :
+			new Alert(alertType, message), title, (button) -> null);
+}
+
 /**
  * Convenience method for when the view should display an error message. The message
  * will be displayed until the user acknowledges the message (by clicking the OK
@@ -489,6 +562,10 @@ public static void setMargin(double aMargin)
 public static void setStage(Stage stage)
 {
 	owner = stage;
+	synchronized( FXMessage.class )
+	{
+		if( notifier != null ) notifier.setOwner(stage);
+	}
 }
 
 /**
@@ -521,6 +598,45 @@ public static String input(final String title, final String message)
 	return optional.isPresent() ? optional.get() : null;
 }
 
+/**
+ * Show a dialog asking for some input {@code String} from the user, without
+ * waiting for the input, or for any other message to be dismissed.
+ *
+ * @param title			title for the input dialog
+ * @param message		to the user as to what input is required
+ * @return				future completed with the input created by the user, or
+ *						null if the dialog is canceled
+ */
+public static CompletableFuture<String> inputAsync(final String title,
+		final String message)
+{
+	return showAsync(() ->
+	{
+		TextInputDialog input = new TextInputDialog();
+		if( message != null )
+			input.setHeaderText(message);
+		return input;
+	}, title, Function.identity());
+}
+
+/**
+ * The notifier that shows the notifications posted by notification, made available
+ * so that the counts of the notifications posted, shown, merged and dropped can be
+ * observed.
+ *
+ * @return				the notifier
+ */
+public static synchronized Notifier getNotifier()
+{
+	if( notifier == null )
+	{
+		startJavaFX();
+		notifier = new Notifier();
+		notifier.setOwner(owner);
+	}
+	return notifier;
+}
+
 /**
  * Optimization: allow for the short-circuit of some work if there is a message
  * showing that has not yet been dismissed by the user.
@@ -542,6 +658,10 @@ public static boolean isMessageShowing()
  * ACCEPT. If the user presses NONE (or dismisses the dialog), a null will be
  * returned, meaning the user did not make a selection. </p>
  * <p>
+ * If there are more than {@code PICKER_OPTIONS} options, the dropdown is replaced
+ * by a list that is searched as the user types (see OptionPicker), which is shown
+ * at once, however many options there are. </p>
+ * <p>
  * If the wait parameter is an explicit null value (meaning wait), an additional
  * button FINISH is added to the buttons. Selecting FINISH will end the application
  * <em>via</em> a call to {@code System.exit(0)}.
@@ -568,66 +688,17 @@ public static <T> T options(final String title, final Collection<T> options,
 	/* Blocking queue for Optional<T> types. */
 	final ArrayBlockingQueue<Optional<T>> RESULT = new ArrayBlockingQueue<>(1);
 
-	/* Set the default on the selection to be the first item in the options
-	   collection. */
-	Iterator<T> iterator = options.iterator();
-	T defaultChoice = iterator.next();
-
-	/* Establish a GridPane to hold the dropdown for the options, and for the
-	   buttons that will be shown. */
-	GridPane grid = new GridPane();
-	grid.setHgap(10);
-	grid.setMaxWidth(Double.MAX_VALUE);
-	grid.setAlignment(Pos.CENTER_LEFT);
-
-	/* Show the dialog, and post the result. */
+	/* Show the dialog, and post the result. If the wait parameter has the
+	   explicit value of null, then also add a FINISH button, that will end the
+	   application. */
 	runRunnable(() ->
 	{
-		/* Create a dialog which will be shown, and get the dialog pane
-				   from that  dialog. */
-		Dialog<Optional<T>> choice = new Dialog<>();
-		DialogPane pane = choice.getDialogPane();
-
-		/* Two buttons are needed, one to accept the selection, and one to
-				   reject any selection. The CANCEL_CLOSE is the default if the
-				   dialog is dismissed. */
-		ButtonType accept =
-				new ButtonType("Accept", ButtonBar.ButtonData.OK_DONE);
-		ButtonType none =
-				new ButtonType("None", ButtonBar.ButtonData.CANCEL_CLOSE);
-		pane.getButtonTypes().addAll(accept, none);
-		/* If the wait parameter has the explicit value of null, then also
-				   add a FINISH button, that will end the application. */
-		if( wait == null ) pane.getButtonTypes().add(FINISH);
-		/* A ComboBox to show the choices of the options. The default is
-				   selected on initial showing. Put the ComboBox in the grid, and
-				   the grid into the dialog pane. */
-		ComboBox<T> comboBox = new ComboBox<>();
-		comboBox.getItems().addAll(options);
-		comboBox.getSelectionModel().select(defaultChoice);
-		grid.add(comboBox, 1, 0);
-		pane.setContent(grid);
-
+		Dialog<Optional<T>> choice = choice(options, wait == null);
 		/* Do all the preparation. */
 		prepare(choice, title);
-		/* Set up the result converter for the dialog. */
-		choice.setResultConverter((dialogButton) ->
-		{
-			/* The converter returns the Optional of the selected
-							   item if ACCEPT, otherwise an empty Optional. */
-			ButtonData data = dialogButton == null ? null :
-					dialogButton.getButtonData();
-			/* If FINISH was selected, exit the application. */
-			if( data == ButtonData.FINISH ) exit(0);
-			/* The converter returns an Optional<T> value. */
-			return (data == ButtonData.OK_DONE ?
-					Optional.of(
-							comboBox.getSelectionModel().getSelectedItem()) :
-					Optional.empty());
-		});
 		choice.showAndWait();
 		/* The {@code getResult} call invokes the result converter, which
-						   returns an Optional<T> object. */
+		   returns an Optional<T> object. */
 		RESULT.add(choice.getResult());
 	});
 	Optional<T> result = wait(RESULT);
@@ -638,73 +709,104 @@ public static <T> T options(final String title, final Collection<T> options,
 	return result.isPresent() ? result.get() : null;
 }
 
+/**
+ * Show a dialog asking for a selection from a collection of options (as options),
+ * without waiting for the selection, or for any other message to be dismissed.
+ *
+ * @param <T>			the type of items from which to choose
+ * @param title			title for the input dialog
+ * @param options		collection of the options from which to choose
+ * @return				future completed with the selected item, or null if no
+ *						choice is made
+ */
+public static <T> CompletableFuture<T> optionsAsync(final String title,
+		final Collection<T> options)
+{
+	if( options == null || options.isEmpty() )
+		throw new IllegalArgumentException("Null options not valid here");
+
+	return showAsync(() -> choice(options, false), title,
+			(result) -> result == null ? null : result.orElse(null));
+}
+
+/**
+ * Called when some message is to be shown, but only for a given time, without
+ * waiting for it to be shown, or for any other message. Unlike temporary, the
+ * message is shown with any other such messages (stacked, at the bottom right of
+ * the Stage given by setStage, if showing), at no more than a few each second. A
+ * message posted again, while it is still waiting or showing, is merged with it.
+ *
+ * @param title			title for the notification, or null
+ * @param message		to the user for temporary showing
+ * @param milliseconds	length of time to show the message
+ */
+public static void notification(final String title, final String message,
+		long milliseconds)
+{
+	getNotifier().post(title, message, milliseconds);
+}
+
 /**
  * Called to create a pop-up window, into which messages may be added that will
  * scroll by in real time. The Consumer object that is returned is used to add the
- * messages. The method of the Consumer is {@code accept}.
+ * messages. The method of the Consumer is {@code accept}, which returns at once
+ * (the messages are shown at the next pulse). The most recent
+ * {@code ScrollAppender.DEFAULT_LINE_CAP} messages are kept; if messages are added
+ * faster than they can be shown, the oldest not yet shown are discarded.
  *
  * @param title			title for the window
  * @param dimensions	array holding respectively width and height as needed
  * @return				Consumer to accept lines to be added to the scrollable area
  */
-@SuppressWarnings("UnusedAssignment")
 public static Consumer<String> scrollDisplay(final String title,
 		final double... dimensions)
+{
+	return scrollDisplay(title, ScrollAppender.DEFAULT_LINE_CAP,
+			ScrollAppender.Overflow.DISCARD_OLDEST, dimensions);
+}
+
+/**
+ * Called to create a pop-up window, into which messages may be added that will
+ * scroll by in real time, with a cap on the number of messages kept, and a policy
+ * for messages added faster than they can be shown. The ScrollAppender that is
+ * returned is used to add the messages (by {@code accept}, which does not wait
+ * for the message to be shown), and to wait until they have been shown (by
+ * {@code flush}). Only one such window is showing at a time: if there is another,
+ * null is returned.
+ *
+ * @param title			title for the window
+ * @param lineCap		the most messages kept in the window
+ * @param overflow		what is done when messages are added faster than they can
+ *						be shown
+ * @param dimensions	array holding respectively width and height as needed
+ * @return				ScrollAppender to accept lines to be added to the scrollable
+ *						area, or null
+ */
+public static ScrollAppender scrollDisplay(final String title, int lineCap,
+		ScrollAppender.Overflow overflow, final double... dimensions)
 {
 	/* Assume the semaphore is going to be acquired. If it is not acquired, then
 	   do not check JavaFX, and return null. */
 	if( !ready(SCROLL_WINDOW_IN_USE, null) ) return null;
 
-	/* The text area to be contained within the scroller pane, where the
-	   messages are added. */
-	final TextArea reportArea = new TextArea();
-
-	/**
-	 * The Consumer that should be the result of the invocation.
-	 */
-	Consumer<String> acceptor = new Consumer<>()
+	/* The appender, holding the messages until they are shown (a pulse at a
+	   time) in its view. */
+	final ScrollAppender appender;
+	try
 	{
-	@Override
-	public void accept(String line)
+		appender = new ScrollAppender(lineCap, overflow);
+	} catch( IllegalArgumentException ex )
 	{
-		if( SCROLL_WINDOW_IN_USE.availablePermits() != 0 ||
-				this != reportArea.getUserData() )
-			throw new IllegalStateException("scrollDisplay not active or incorrect");
-		{
-			/* Latch to prevent the return from this method until the
-			   {@code runLater} task has completed. */
-			final CountDownLatch countDownLatch = new CountDownLatch(1);
-			Platform.runLater(() ->
-			{
-				/* If any action here finishes normally, or throws an exception,
-				   the finally clause wil be executed to release the latch. */
-				try
-				{
-					reportArea.appendText(line + lineSeparator());
-				} finally
-				{
-					countDownLatch.countDown();
-				}
-			});
-			/* Wait here until the appending of the text has been done by the JavaFX
-			   system. */
-			try
-			{
-				countDownLatch.await();
-			} catch( InterruptedException ex ) {}
-		}
+		readyAgain(SCROLL_WINDOW_IN_USE);
+		throw ex;
 	}
-	};
-
-	/* Used to ensure the acceptor being used is for this report area. */
-	reportArea.setUserData(acceptor);
 
-	/* Blocking queue for Optional<List<File>> types. */
+	/* Blocking queue for Optional<Boolean> types. */
 	final ArrayBlockingQueue<Optional<Boolean>> SHOWING =
 			new ArrayBlockingQueue<>(1);
 
 	/* Show the scrollable area in a new window. */
-	Runnable setup = () ->
+	runRunnable(() ->
 	{
 		final Stage stage = new Stage(StageStyle.UTILITY);
 		/* The given stage cannot be the owner if it is not showing. */
@@ -717,60 +819,55 @@ public static Consumer<String> scrollDisplay(final String title,
 			Platform.runLater(() ->
 			{
 					stage.close();
-					reportArea.setUserData(null);
+					appender.close();
 					readyAgain(SCROLL_WINDOW_IN_USE);
 					Platform.exit();
 			});
 		});
 		stage.setOnCloseRequest((e) -> {finishUp.run();});
-		/* VBox to hold report area and the "Done" button. */
+		/* VBox to hold the view of the messages and the "Done" button. */
 		VBox container = new VBox();
-		/* The text area for the messages. Clear it. */
-		reportArea.clear();
-		reportArea.setWrapText(false);
+		/* The view of the messages, which scrolls by itself (and makes cells only
+		   for the messages that can be seen). */
+		ListView<String> reportView = appender.createView();
 		/* HBox to hold the button, centered, at the bottom of the scrollable area.*/
 		HBox hBox = new HBox();
 		Button done = new Button("Done");
 		done.setOnAction((e) -> {finishUp.run();});
 		hBox.getChildren().add(done);
 		hBox.setAlignment(Pos.CENTER);
-		/* Add the report area and the button to the VBox. */
-		container.getChildren().addAll(reportArea, hBox);
-		VBox.setVgrow(reportArea, Priority.ALWAYS);
-		ScrollPane scrollPane = new ScrollPane();
-		scrollPane.setContent(container);
-		/* Dimensions are respectively height, and width, if present. */
+		/* Add the view and the button to the VBox. */
+		container.getChildren().addAll(reportView, hBox);
+		VBox.setVgrow(reportView, Priority.ALWAYS);
+		/* Dimensions are respectively width, and height, if present. */
+		container.setPrefWidth(DEFAULT_WIDTH);
+		container.setPrefHeight(DEFAULT_HEIGHT);
 		if( dimensions != null )
 		{
-			scrollPane.setPrefWidth(DEFAULT_WIDTH);
 			if( dimensions.length > 0 && dimensions[0] != 0.0)
 				container.setPrefWidth(dimensions[0]);
-			scrollPane.setPrefHeight(DEFAULT_HEIGHT);
 			if( dimensions.length > 1 && dimensions[1] != 0.0)
 				container.setPrefHeight(dimensions[1]);
 		}
-		/* The scroller is to fit the content. */
-		scrollPane.setFitToWidth(true);
-		scrollPane.setFitToHeight(true);
 
 		/* Show this window. */
 		Scene scene = new Scene(container);
 		stage.setScene(scene);
-		stage.isResizable();
+		stage.setResizable(true);
 		stage.show();
-		SHOWING.add(Optional.ofNullable(true));
-	};
-	runRunnable(setup);
-	/* Wait for the optional result. */
+		FXStartup.shown();
+		SHOWING.add(Optional.of(true));
+	});
+	/* Wait for the window to be showing. */
 	wait(SHOWING);
-	setup = null;
-	return acceptor;
+	return appender;
 }
 
 /**
  * Called when some message is to be shown, but only for a given time. The dialog
  * can dismissed by the user, but if this is not done, after the given time, the
- * dialog disappears.
+ * dialog disappears. (There is no return until then: see notification for a
+ * message shown without waiting.)
  *
  * @param title			title for the temporary dialog
  * @param message		to the user for temporary showing
@@ -814,23 +911,96 @@ public static void temporary(final String title, final String message,
 }
 
 /**
- * The preparatory steps to showing the alert. This arranges for the dialog to be
- * shown on top of other windows, listeners to detect the current location of the
- * dialog (in case the user has moved it), and to effect whether it is shown over
- * the top of an existing Stage, or displaced with respect to that Stage.
- * <p>
- * The two static BlockingQueues are also cleared.
+ * Create a dialog showing a dropdown of options, the first selected, with buttons
+ * to accept the selection, or to reject any selection (the default if the dialog
+ * is dismissed), and perhaps a button FINISH, that ends the application. The
+ * result of the dialog is the Optional of the selected item if accepted, otherwise
+ * an empty Optional. To be called on the Application thread.
+ *
+ * @param <T>			the type of items from which to choose
+ * @param options		collection of the options from which to choose
+ * @param finish		true if the FINISH button is to be added
+ * @return				the dialog
+ */
+private static <T> Dialog<Optional<T>> choice(Collection<T> options,
+		boolean finish)
+{
+	/* Establish a GridPane to hold the dropdown for the options, and for the
+	   buttons that will be shown. */
+	GridPane grid = new GridPane();
+	grid.setHgap(10);
+	grid.setMaxWidth(Double.MAX_VALUE);
+	grid.setAlignment(Pos.CENTER_LEFT);
+
+	/* Create a dialog which will be shown, and get the dialog pane from that
+	   dialog. */
+	Dialog<Optional<T>> choice = new Dialog<>();
+	DialogPane pane = choice.getDialogPane();
+
+	/* Two buttons are needed, one to accept the selection, and one to reject any
+	   selection. The CANCEL_CLOSE is the default if the dialog is dismissed. */
+	ButtonType accept = new ButtonType("Accept", ButtonBar.ButtonData.OK_DONE);
+	ButtonType none = new ButtonType("None", ButtonBar.ButtonData.CANCEL_CLOSE);
+	pane.getButtonTypes().addAll(accept, none);
+	if( finish ) pane.getButtonTypes().add(FINISH);
+	/* A ComboBox to show the choices of the options, or, if there are too many
+	   for a dropdown, a list searched as the user types (which does not copy the
+	   options as it is shown). The first is selected on initial showing. Put the
+	   ComboBox in the grid, and the grid (or the list) into the dialog pane. */
+	Supplier<T> selected;
+	if( options.size() > PICKER_OPTIONS )
+	{
+		OptionPicker<T> picker = new OptionPicker<>(options);
+		picker.setPrefSize(DEFAULT_WIDTH, 2.0 * DEFAULT_HEIGHT);
+		pane.setContent(picker);
+		choice.setResizable(true);
+		choice.setOnShown((event) -> picker.getFilter().requestFocus());
+		selected = picker::getSelected;
+	} else
+	{
+		ComboBox<T> comboBox = new ComboBox<>();
+		comboBox.getItems().addAll(options);
+		comboBox.getSelectionModel().select(options.iterator().next());
+		grid.add(comboBox, 1, 0);
+		pane.setContent(grid);
+		selected = comboBox.getSelectionModel()::getSelectedItem;
+	}
+
+	/* Set up the result converter for the dialog. */
+	choice.setResultConverter((dialogButton) ->
+	{
+		/* The converter returns the Optional of the selected item if ACCEPT,
+		   otherwise an empty Optional. */
+		ButtonData data = dialogButton == null ? null :
+				dialogButton.getButtonData();
+		/* If FINISH was selected, exit the application. */
+		if( data == ButtonData.FINISH ) exit(0);
+		/* The converter returns an Optional<T> value. */
+		return (data == ButtonData.OK_DONE ? Optional.ofNullable(selected.get()) :
+				Optional.empty());
+	});
+	return choice;
+}
+
+/**
+ * The steps to placing the alert. This arranges for the dialog to be shown on top
+ * of other windows, listeners to detect the current location of the dialog (in
+ * case the user has moved it), and to effect whether it is shown over the top of
+ * an existing Stage, or displaced with respect to that Stage.
  *
  * @param dialog	the dialog that is to be shown
  * @param title		if not null, title to add to dialog window
  */
 @SuppressWarnings("NestedAssignment")
-private static void prepare(Dialog<? extends Object> dialog, String title)
+private static void place(Dialog<? extends Object> dialog, String title)
 {
 	if( title != null ) dialog.setTitle(title);
 	/* This is to ensure the alert is seen on top of all windows. */
 	Stage origin = ( (Stage) dialog.getDialogPane().getScene().getWindow() );
 	origin.setAlwaysOnTop(true);
+	/* The first window shown is timed. */
+	if( FXStartup.getFirstWindow() < 0L )
+		origin.addEventHandler(WindowEvent.WINDOW_SHOWN, (e) -> FXStartup.shown());
 	/* Add listeners in case the window is moved. Remember the new location. */
 	dialog.xProperty().addListener(
 			(ObservableValue<? extends Number> observable,
@@ -857,6 +1027,18 @@ private static void prepare(Dialog<? extends Object> dialog, String title)
 		dialog.setX(x);
 		dialog.setY(y);
 	}
+}
+
+/**
+ * The preparatory steps to showing the alert (as for place), when the response is
+ * posted to one of the static BlockingQueues: these are also cleared.
+ *
+ * @param dialog	the dialog that is to be shown
+ * @param title		if not null, title to add to dialog window
+ */
+private static void prepare(Dialog<? extends Object> dialog, String title)
+{
+	place(dialog, title);
 	/* Set up the queues for new results. */
 	ENTERED.clear();
 	BUTTON.clear();
@@ -883,7 +1065,7 @@ private static boolean ready(Semaphore showing, boolean[] wait)
 	else result = showing.tryAcquire();
 
 	/* The semaphore has been obtained, so ensure JavaFX is running. */
-	if( result && jFXPanel == null ) jFXPanel = new JFXPanel();
+	if( result ) startJavaFX();
 	return result;
 }
 
@@ -916,6 +1098,57 @@ private static void runRunnable(Runnable runnable)
 	}
 }
 
+/**
+ * Show a dialog, created (and placed) on the Application thread, without waiting
+ * for it to be dismissed, or for any other message. The future returned is
+ * completed, when the dialog is dismissed, with its result as converted; if the
+ * dialog cannot be created, it is completed with the exception. If the future is
+ * cancelled (or otherwise completed) first, the dialog is closed (or, if not yet
+ * showing, never shown).
+ *
+ * @param <R>			the type of the result of the dialog
+ * @param <T>			the type of the response
+ * @param create		creates the dialog
+ * @param title			if not null, title to add to dialog window
+ * @param convert		converts the result of the dialog (which may be null) to
+ *						the response
+ * @return				future completed with the response
+ */
+private static <R, T> CompletableFuture<T> showAsync(Supplier<Dialog<R>> create,
+		String title, Function<? super R, ? extends T> convert)
+{
+	CompletableFuture<T> future = new CompletableFuture<>();
+	startJavaFX();
+	runRunnable(() ->
+	{
+		if( future.isDone() ) return;
+		try
+		{
+			Dialog<R> dialog = create.get();
+			place(dialog, title);
+			/* The dialog has its own channel for its result: its future. */
+			dialog.setOnHidden((e) -> future.complete(convert.apply(
+					dialog.getResult())));
+			future.whenComplete((result, ex) ->
+					runRunnable(() -> {if( dialog.isShowing() ) dialog.close();}));
+			dialog.show();
+		} catch( RuntimeException ex )
+		{
+			future.completeExceptionally(ex);
+		}
+	});
+	return future;
+}
+
+/**
+ * Ensure that JavaFX is running (without starting AWT or Swing). Started once if
+ * needed.
+ */
+private static void startJavaFX()
+{
+	FXStartup.start();
+}
+
 /**
  * By using take, wait for an Optional&lt;T&gt; to be posted to a blocking array.
  *
@@ -0,0 +1,305 @@
+/*-
+ * This software is the work of Dr. Bruce K. Haddon (hereafter, "the Owner"), and
+ * all rights and intellectual property remain the property of that person.
+ *
+ * Rights to view or use this software as source code, or for execution, are only
+ * granted via one or more licences at the discretion the Owner. In any event, the
+ * grant to the "Licensee" shall be for a non-exclusive, non-transferable license
+ * to view or use this software version (hereafter, "the Software") according to
+ * the terms of the licence and contract executed between the Licensee and the
+ * Owner. Licensee agrees that the copyright notice and this statement will appear
+ * on all copies of the Software, packaging, and documentation or portions thereof
+ * made under the terms of the license and contract.
+ *
+ * Please refer to the your license and contract for further important copyright
+ * and licensing information. If you are reading this, and you do not have a
+ * signed, current license or confidentiality agreement executed with the Owner,
+ * it is because someone has violated the terms of an agreement, an act to which
+ * you may be held to be a party.
+ *
+ * The Owner makes no representations or warranties about the suitability of the
+ * Software, either express or implied, including but not limited to the implied
+ * warranties of merchantability, fitness for particular purposes, or
+ * non-infringement, other than those contained in the Licensee's license and
+ * contract documents. The Owner shall not be liable for any damages suffered by
+ * the Licensee as a result of using, modifying or distributing this software or
+ * its derivatives.
+ *
+ * Irrespective of the conditions above, permission is granted to the students and
+ * staff of the Front Range Community College, Colorado, to use read and use this
+ * class, but not to make amendments or to distributed this class to other parties.
+ *
+ * Copyright 2000-2019 Dr. Bruce K. Haddon
+ */
+package software.haddon.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import javafx.application.Platform;
+
+/**
+ * The starting of JavaFX for the dialogs of FXMessage, when they are needed by a
+ * program that has not (yet) started JavaFX itself, and the timing of that start.
+ * JavaFX is started by Platform.startup, without starting AWT or Swing (as making a
+ * JFXPanel would); if JavaFX has already been started (as by Application.launch),
+ * nothing more is done.
+ * <p>
+ * The start can be made early, on another thread (by warmUp), so that the first
+ * dialog is not held up by it: the classes of the dialogs are loaded, and, if
+ * asked, JavaFX is started. (A program started by Application.launch must not ask
+ * for JavaFX to be started, as then launch could not start it; the loading of the
+ * classes goes on while launch starts JavaFX.) </p>
+ * <p>
+ * The times (in milliseconds since the virtual machine started) at which JavaFX
+ * was first asked for, was running, and the classes of the dialogs were loaded, and
+ * at which the first window was shown, are kept. If reporting is set, these are
+ * written to the standard error once the first window is shown. The times are
+ * taken by System.nanoTime, which costs next to nothing, and are made into times
+ * since the virtual machine started only when they are asked for (as the
+ * management of the virtual machine, which gives that time, is slow to load, and
+ * would otherwise hold up the start of the program). </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		8.1, 2026-10-18
+ */
+public final class FXStartup
+{
+/**
+ * The classes loaded by warmUp: those of the dialogs, and their controls.
+ */
+private static final String[] DIALOG_CLASSES =
+{
+	"javafx.scene.control.Alert",
+	"javafx.scene.control.ButtonBar",
+	"javafx.scene.control.ButtonType",
+	"javafx.scene.control.ComboBox",
+	"javafx.scene.control.Dialog",
+	"javafx.scene.control.DialogPane",
+	"javafx.scene.control.Label",
+	"javafx.scene.control.ListView",
+	"javafx.scene.control.TextField",
+	"javafx.scene.control.TextInputDialog",
+	"javafx.scene.control.skin.ButtonBarSkin",
+	"javafx.scene.control.skin.ButtonSkin",
+	"javafx.scene.control.skin.ComboBoxListViewSkin",
+	"javafx.scene.control.skin.LabelSkin",
+	"javafx.scene.control.skin.ListViewSkin",
+	"javafx.scene.control.skin.TextFieldSkin",
+	"javafx.scene.layout.GridPane",
+	"javafx.stage.Stage"
+};
+
+/**
+ * The value of a time not yet taken (as System.nanoTime may be negative).
+ */
+private static final long NOT_YET = Long.MIN_VALUE;
+
+/**
+ * The time (by System.nanoTime) at which the first window was shown, or NOT_YET if
+ * none has been.
+ */
+private static volatile long firstWindow = NOT_YET;
+
+/**
+ * The time (by System.nanoTime) at which the classes of the dialogs were loaded,
+ * or NOT_YET.
+ */
+private static volatile long loaded = NOT_YET;
+
+/**
+ * True if the times are to be reported once the first window is shown.
+ */
+private static volatile boolean reporting;
+
+/**
+ * The time (by System.nanoTime) at which JavaFX was first asked for, or NOT_YET.
+ */
+private static volatile long requested = NOT_YET;
+
+/**
+ * The time (by System.nanoTime) at which JavaFX was known to be running, or
+ * NOT_YET.
+ */
+private static volatile long running = NOT_YET;
+
+/**
+ * True if JavaFX was started here (rather than having been started already).
+ */
+private static volatile boolean started;
+
+/**
+ * Constructor: not used (there are only static methods).
+ */
+private FXStartup() { }
+
+/**
+ * @return				the time at which the first window was shown (milliseconds
+ *						since the virtual machine started), or -1 if none has been
+ */
+public static long getFirstWindow()
+{
+	return uptime(firstWindow);
+}
+
+/**
+ * @return				the time at which the classes of the dialogs were loaded
+ *						(milliseconds since the virtual machine started), or -1 if
+ *						not yet
+ */
+public static long getLoaded()
+{
+	return uptime(loaded);
+}
+
+/**
+ * @return				the time at which JavaFX was first asked for (milliseconds
+ *						since the virtual machine started), or -1 if not yet
+ */
+public static long getRequested()
+{
+	return uptime(requested);
+}
+
+/**
+ * @return				the time at which JavaFX was known to be running
+ *						(milliseconds since the virtual machine started), or -1 if
+ *						not yet
+ */
+public static long getRunning()
+{
+	return uptime(running);
+}
+
+/**
+ * @return				true if JavaFX was started here (by Platform.startup),
+ *						rather than having been started already
+ */
+public static boolean isStarted()
+{
+	return started;
+}
+
+/**
+ * The times kept, as one line of text.
+ *
+ * @return				the times
+ */
+public static String report()
+{
+	return "JavaFX startup (ms since the virtual machine started): requested " +
+			time(requested) + ", running " + time(running) +
+			(running == NOT_YET ? "" : started ? " (started here)" :
+					" (already running)") +
+			", dialog classes loaded " + time(loaded) + ", first window " +
+			time(firstWindow);
+}
+
+/**
+ * Set whether the times are to be written to the standard error once the first
+ * window is shown.
+ *
+ * @param report		true if the times are to be reported
+ */
+public static void setReporting(boolean report)
+{
+	reporting = report;
+}
+
+/**
+ * Note that a window has been shown. Only the first is timed.
+ */
+public static void shown()
+{
+	if( firstWindow != NOT_YET ) return;
+	synchronized( FXStartup.class )
+	{
+		if( firstWindow != NOT_YET ) return;
+		firstWindow = System.nanoTime();
+	}
+	if( reporting ) System.err.println(report());
+}
+
+/**
+ * Ensure that JavaFX is running, starting it if it is not, and waiting until it
+ * is. If called on the JavaFX Application thread, JavaFX is already running.
+ */
+public static synchronized void start()
+{
+	if( running != NOT_YET ) return;
+	if( requested == NOT_YET ) requested = System.nanoTime();
+	CountDownLatch up = new CountDownLatch(1);
+	try
+	{
+		Platform.startup(up::countDown);
+		up.await();
+		/* A program that did not start JavaFX itself should not have it end
+		   when the last of the dialogs is closed. */
+		Platform.setImplicitExit(false);
+		started = true;
+	} catch( IllegalStateException ex )
+	{
+		/* Already started. */
+	} catch( InterruptedException ex )
+	{
+		Thread.currentThread().interrupt();
+	}
+	running = System.nanoTime();
+}
+
+/**
+ * Begin, on another thread, the loading of the classes of the dialogs, and, if
+ * asked, the starting of JavaFX, so that neither holds up the first dialog. To be
+ * called as early as possible.
+ *
+ * @param startJavaFX	true if JavaFX is to be started (false if it is to be
+ *						started by Application.launch)
+ * @return				the thread doing the work (a daemon)
+ */
+public static Thread warmUp(boolean startJavaFX)
+{
+	if( requested == NOT_YET ) requested = System.nanoTime();
+	Thread thread = new Thread(() ->
+	{
+		if( startJavaFX ) start();
+		ClassLoader loader = FXStartup.class.getClassLoader();
+		for( String name : DIALOG_CLASSES )
+			try
+			{
+				/* Loaded, but not initialized (which may need JavaFX running). */
+				Class.forName(name, false, loader);
+			} catch( ClassNotFoundException ex ) { /* not needed, then */ }
+		loaded = System.nanoTime();
+	}, "JavaFX warm-up");
+	thread.setDaemon(true);
+	thread.start();
+	return thread;
+}
+
+/**
+ * A time, as text.
+ *
+ * @param time			the time (by System.nanoTime), or NOT_YET
+ * @return				the time (milliseconds since the virtual machine started),
+ *						or "-" if not yet
+ */
+private static String time(long time)
+{
+	return time == NOT_YET ? "-" : String.valueOf(uptime(time));
+}
+
+/**
+ * A time taken by System.nanoTime, as the time since the virtual machine started.
+ *
+ * @param time			the time (by System.nanoTime), or NOT_YET
+ * @return				the time (milliseconds since the virtual machine started),
+ *						or -1 if not yet
+ */
+private static long uptime(long time)
+{
+	if( time == NOT_YET ) return -1L;
+	/* The uptime is taken first, as it may be slow the first time. */
+	long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+	long ago = (System.nanoTime() - time) / 1_000_000L;
+	return Math.max(0L, uptime - ago);
+}
+}
@@ -0,0 +1,593 @@
+/*-
+ * This software is the work of Dr. Bruce K. Haddon (hereafter, "the Owner"), and
+ * all rights and intellectual property remain the property of that person.
+ *
+ * Rights to view or use this software as source code, or for execution, are only
+ * granted via one or more licences at the discretion the Owner. In any event, the
+ * grant to the "Licensee" shall be for a non-exclusive, non-transferable license
+ * to view or use this software version (hereafter, "the Software") according to
+ * the terms of the licence and contract executed between the Licensee and the
+ * Owner. Licensee agrees that the copyright notice and this statement will appear
+ * on all copies of the Software, packaging, and documentation or portions thereof
+ * made under the terms of the license and contract.
+ *
+ * Please refer to the your license and contract for further important copyright
+ * and licensing information. If you are reading this, and you do not have a
+ * signed, current license or confidentiality agreement executed with the Owner,
+ * it is because someone has violated the terms of an agreement, an act to which
+ * you may be held to be a party.
+ *
+ * The Owner makes no representations or warranties about the suitability of the
+ * Software, either express or implied, including but not limited to the implied
+ * warranties of merchantability, fitness for particular purposes, or
+ * non-infringement, other than those contained in the Licensee's license and
+ * contract documents. The Owner shall not be liable for any damages suffered by
+ * the Licensee as a result of using, modifying or distributing this software or
+ * its derivatives.
+ *
+ * Irrespective of the conditions above, permission is granted to the students and
+ * staff of the Front Range Community College, Colorado, to use read and use this
+ * class, but not to make amendments or to distributed this class to other parties.
+ *
+ * Copyright 2000-2019 Dr. Bruce K. Haddon
+ */
+package software.haddon.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import javafx.animation.AnimationTimer;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import javafx.stage.Screen;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+import javafx.util.Duration;
+
+/**
+ * Shows short notifications ("toasts"), posted from any number of threads, without
+ * the posting thread ever waiting for them to be shown. Each notification is
+ * shown, for a given time, in a small window of its own; several may be showing
+ * at once, stacked one above the other at the bottom right of the owner (or of
+ * the screen).
+ * <p>
+ * Notifications posted are queued, and the queue is looked at once a pulse, on the
+ * JavaFX Application thread. A notification with the same title and message as one
+ * already queued, or showing, is merged into that one (which then shows the count
+ * of the notifications merged into it, and, if showing, is shown for longer). New
+ * notifications are shown no faster than a given rate (with bursts of up to the
+ * number that may show at once), and only while fewer than that number are
+ * showing. If the queue is full, the oldest notification in it is dropped. Counts
+ * are kept of the notifications posted, shown, merged and dropped. </p>
+ * <p>
+ * JavaFX must be running before a notification is posted. </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		8.1, 2026-10-18
+ */
+public class Notifier
+{
+/**
+ * The most notifications queued, if no other is given.
+ */
+public static final int DEFAULT_CAPACITY = 100;
+
+/**
+ * The most new notifications shown each second, if no other rate is given.
+ */
+public static final double DEFAULT_RATE = 2.0;
+
+/**
+ * The most notifications showing at once, if no other is given.
+ */
+public static final int DEFAULT_VISIBLE = 4;
+
+/**
+ * The space between the notifications, and around the stack (pixels).
+ */
+private static final double GAP = 8.0;
+
+/**
+ * Count of nanoseconds in a second.
+ */
+private static final double NANOSECONDS = 1.0E9;
+
+/**
+ * The width of a notification (pixels).
+ */
+private static final double WIDTH = 280.0;
+
+/**
+ * The number of new notifications that may be shown now (used only on the
+ * Application thread).
+ */
+private double allowance;
+
+/**
+ * The most notifications queued.
+ */
+private final int capacity;
+
+/**
+ * Count of the notifications dropped, as the queue was full.
+ */
+private long dropped;
+
+/**
+ * The time (nanoseconds) at which the allowance was last added to.
+ */
+private long last;
+
+/**
+ * Lock guarding the queue, and the counts.
+ */
+private final ReentrantLock lock = new ReentrantLock();
+
+/**
+ * Count of the notifications merged into another, queued or showing.
+ */
+private long merged;
+
+/**
+ * The window in which the notifications are stacked, or null for the screen.
+ */
+private volatile Stage owner;
+
+/**
+ * The notifications queued, in order of posting, by their title and message.
+ */
+private final Map<String, Note> pending = new LinkedHashMap<>();
+
+/**
+ * Count of the notifications posted.
+ */
+private long posted;
+
+/**
+ * The most new notifications shown each second.
+ */
+private final double rate;
+
+/**
+ * True if the timer has been (or is about to be) started, to look at the queue.
+ */
+private boolean scheduled;
+
+/**
+ * Count of the notifications shown (not counting those merged into them).
+ */
+private long shown;
+
+/**
+ * The notifications showing, oldest first, by their title and message (used only
+ * on the Application thread).
+ */
+private final Map<String, Toast> showing = new LinkedHashMap<>();
+
+/**
+ * The timer that looks at the queue at each pulse, while notifications are queued.
+ */
+private final AnimationTimer timer;
+
+/**
+ * The most notifications showing at once.
+ */
+private final int visible;
+
+/**
+ * Constructor: a notifier with the default capacity, rate, and number showing.
+ */
+public Notifier()
+{
+	this(DEFAULT_CAPACITY, DEFAULT_VISIBLE, DEFAULT_RATE);
+}
+
+/**
+ * Constructor.
+ *
+ * @param capacity		the most notifications queued
+ * @param visible		the most notifications showing at once
+ * @param rate			the most new notifications shown each second
+ */
+@SuppressWarnings("Convert2Lambda")
+public Notifier(int capacity, int visible, double rate)
+{
+	if( capacity <= 0 || visible <= 0 )
+		throw new IllegalArgumentException("Capacity and count must be positive");
+	if( !(rate > 0.0) )
+		throw new IllegalArgumentException("Rate must be positive");
+	this.capacity = capacity;
+	this.visible = visible;
+	this.rate = rate;
+	allowance = visible;
+
+	/* The timer runs only while notifications are queued, and is stopped at the
+	   first pulse that finds none. */
+	timer = new AnimationTimer()
+	{
+		@Override
+		public void handle(long now)
+		{
+			if( !release(now) ) stop();
+		}
+	};
+}
+
+/**
+ * @return				count of the notifications dropped, as the queue was full
+ *						(including those merged into one dropped)
+ */
+public long getDropped()
+{
+	lock.lock();
+	try
+	{
+		return dropped;
+	} finally
+	{
+		lock.unlock();
+	}
+}
+
+/**
+ * @return				count of the notifications merged into another (queued or
+ *						showing) with the same title and message (not counting
+ *						those merged into one later dropped)
+ */
+public long getMerged()
+{
+	lock.lock();
+	try
+	{
+		return merged;
+	} finally
+	{
+		lock.unlock();
+	}
+}
+
+/**
+ * @return				count of the notifications queued, not yet shown
+ */
+public int getPending()
+{
+	lock.lock();
+	try
+	{
+		return pending.size();
+	} finally
+	{
+		lock.unlock();
+	}
+}
+
+/**
+ * @return				count of the notifications posted
+ */
+public long getPosted()
+{
+	lock.lock();
+	try
+	{
+		return posted;
+	} finally
+	{
+		lock.unlock();
+	}
+}
+
+/**
+ * @return				count of the notifications shown (not counting those
+ *						merged into them)
+ */
+public long getShown()
+{
+	lock.lock();
+	try
+	{
+		return shown;
+	} finally
+	{
+		lock.unlock();
+	}
+}
+
+/**
+ * Post a notification, to be shown for the given time once the rate and the
+ * number showing allow. There is no wait.
+ *
+ * @param title			title of the notification, or null
+ * @param message		the message of the notification
+ * @param milliseconds	length of time to show the notification
+ */
+public void post(String title, String message, long milliseconds)
+{
+	if( message == null )
+		throw new IllegalArgumentException("Null message not valid here");
+	String key = (title == null ? "" : title) + '\u0000' + message;
+	boolean start;
+	lock.lock();
+	try
+	{
+		++posted;
+		Note same = pending.get(key);
+		if( same != null )
+		{
+			++same.count;
+			same.milliseconds = Math.max(same.milliseconds, milliseconds);
+			++merged;
+			return;
+		}
+		if( pending.size() == capacity )
+		{
+			/* The notifications merged into the one dropped are counted as
+			   dropped instead. */
+			Iterator<Note> oldest = pending.values().iterator();
+			Note note = oldest.next();
+			dropped += note.count;
+			merged -= note.count - 1;
+			oldest.remove();
+		}
+		pending.put(key, new Note(key, title, message, milliseconds));
+		start = !scheduled;
+		scheduled = true;
+	} finally
+	{
+		lock.unlock();
+	}
+
+	/* Only the first notification queued after the queue was emptied starts the
+	   timer. */
+	if( start ) Platform.runLater(timer::start);
+}
+
+/**
+ * Set the window in which the notifications are stacked (at its bottom right),
+ * from the next notification shown.
+ *
+ * @param stage			the window, or null for the screen
+ */
+public void setOwner(Stage stage)
+{
+	owner = stage;
+}
+
+/**
+ * Take from the queue the notifications that may be shown now: those merged into
+ * one showing, and, in order, new ones as the rate and the number showing allow.
+ * Show them. Called at each pulse.
+ *
+ * @param now			the time of the pulse (nanoseconds)
+ * @return				true if notifications are still queued
+ */
+private boolean release(long now)
+{
+	/* The allowance grows at the rate, up to the number that may show at once. */
+	if( last != 0L )
+		allowance = Math.min(visible, allowance + (now - last) * rate / NANOSECONDS);
+	last = now;
+
+	List<Note> merging = new ArrayList<>();
+	List<Note> showNow = new ArrayList<>();
+	boolean more;
+	lock.lock();
+	try
+	{
+		int room = visible - showing.size();
+		for( Iterator<Note> notes = pending.values().iterator(); notes.hasNext(); )
+		{
+			Note note = notes.next();
+			if( showing.containsKey(note.key) )
+			{
+				merging.add(note);
+				++merged;
+			} else if( room > 0 && allowance >= 1.0 )
+			{
+				showNow.add(note);
+				--room;
+				allowance -= 1.0;
+				++shown;
+			} else
+				continue;
+			notes.remove();
+		}
+		more = !pending.isEmpty();
+		if( !more ) scheduled = false;
+	} finally
+	{
+		lock.unlock();
+	}
+
+	for( Note note : merging ) showing.get(note.key).merge(note);
+	for( Note note : showNow ) showing.put(note.key, new Toast(note));
+	if( !showNow.isEmpty() ) restack();
+	return more;
+}
+
+/**
+ * Place the notifications showing one above the other, the oldest at the bottom,
+ * at the bottom right of the owner (or of the screen).
+ */
+private void restack()
+{
+	Rectangle2D area = owner != null && owner.isShowing() ?
+			new Rectangle2D(owner.getX(), owner.getY(), owner.getWidth(),
+					owner.getHeight()) :
+			Screen.getPrimary().getVisualBounds();
+	double bottom = area.getMaxY() - GAP;
+	for( Toast toast : showing.values() )
+	{
+		double height = toast.stage.getHeight();
+		toast.stage.setX(area.getMaxX() - GAP - WIDTH);
+		toast.stage.setY(bottom - height);
+		bottom -= height + GAP;
+	}
+}
+
+/**
+ * A notification queued, with the count of those merged into it.
+ */
+private static final class Note
+{
+/**
+ * Count of the notifications it stands for.
+ */
+private int count = 1;
+
+/**
+ * Its title and message, as a key.
+ */
+private final String key;
+
+/**
+ * The message.
+ */
+private final String message;
+
+/**
+ * Length of time to show it.
+ */
+private long milliseconds;
+
+/**
+ * The title, or null.
+ */
+private final String title;
+
+/**
+ * Constructor.
+ *
+ * @param key			the title and message, as a key
+ * @param title			the title, or null
+ * @param message		the message
+ * @param milliseconds	length of time to show it
+ */
+private Note(String key, String title, String message, long milliseconds)
+{
+	this.key = key;
+	this.title = title;
+	this.message = message;
+	this.milliseconds = milliseconds;
+}
+}
+
+/**
+ * A notification showing, in its own window.
+ */
+private final class Toast
+{
+/**
+ * Count of the notifications it stands for.
+ */
+private int count;
+
+/**
+ * Shows the count, if more than one.
+ */
+private final Label counter = new Label();
+
+/**
+ * The key of the notification.
+ */
+private final String key;
+
+/**
+ * The window of the notification.
+ */
+private final Stage stage = new Stage(StageStyle.UNDECORATED);
+
+/**
+ * The timeline that closes the window.
+ */
+private Timeline timeline;
+
+/**
+ * Constructor: show a notification.
+ *
+ * @param note			the notification
+ */
+private Toast(Note note)
+{
+	key = note.key;
+	count = note.count;
+	VBox box = new VBox(GAP / 2.0);
+	box.setPadding(new Insets(GAP));
+	box.setPrefWidth(WIDTH);
+	if( note.title != null )
+	{
+		Label title = new Label(note.title);
+		title.setStyle("-fx-font-weight: bold;");
+		box.getChildren().add(title);
+	}
+	Label message = new Label(note.message);
+	message.setWrapText(true);
+	box.getChildren().addAll(message, counter);
+	showCount();
+	box.setOnMouseClicked((e) -> close());
+
+	if( owner != null && owner.isShowing() ) stage.initOwner(owner);
+	stage.setAlwaysOnTop(true);
+	stage.setScene(new Scene(box));
+	stage.show();
+	closeAfter(note.milliseconds);
+}
+
+/**
+ * Close the window, and stack those left showing again.
+ */
+private void close()
+{
+	timeline.stop();
+	stage.close();
+	if( showing.get(key) != this ) return;
+	showing.remove(key);
+	restack();
+}
+
+/**
+ * Arrange for the window to be closed after the given time, in place of any time
+ * arranged before.
+ *
+ * @param milliseconds	the time
+ */
+private void closeAfter(long milliseconds)
+{
+	if( timeline != null ) timeline.stop();
+	timeline = new Timeline(
+			new KeyFrame(Duration.millis(milliseconds), (e) -> close()));
+	timeline.play();
+}
+
+/**
+ * Merge a queued notification into this one: it is counted, and shown for the
+ * time it would have been shown from now.
+ *
+ * @param note			the notification
+ */
+private void merge(Note note)
+{
+	count += note.count;
+	showCount();
+	closeAfter(note.milliseconds);
+}
+
+/**
+ * Show the count of the notifications it stands for, if more than one.
+ */
+private void showCount()
+{
+	counter.setText(count > 1 ? "(" + count + " times)" : "");
+	counter.setVisible(count > 1);
+	counter.setManaged(count > 1);
+}
+}
+}
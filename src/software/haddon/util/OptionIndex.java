@@ -0,0 +1,268 @@
+/*-
+ * This software is the work of Dr. Bruce K. Haddon (hereafter, "the Owner"), and
+ * all rights and intellectual property remain the property of that person.
+ *
+ * Rights to view or use this software as source code, or for execution, are only
+ * granted via one or more licences at the discretion the Owner. In any event, the
+ * grant to the "Licensee" shall be for a non-exclusive, non-transferable license
+ * to view or use this software version (hereafter, "the Software") according to
+ * the terms of the licence and contract executed between the Licensee and the
+ * Owner. Licensee agrees that the copyright notice and this statement will appear
+ * on all copies of the Software, packaging, and documentation or portions thereof
+ * made under the terms of the license and contract.
+ *
+ * Please refer to the your license and contract for further important copyright
+ * and licensing information. If you are reading this, and you do not have a
+ * signed, current license or confidentiality agreement executed with the Owner,
+ * it is because someone has violated the terms of an agreement, an act to which
+ * you may be held to be a party.
+ *
+ * The Owner makes no representations or warranties about the suitability of the
+ * Software, either express or implied, including but not limited to the implied
+ * warranties of merchantability, fitness for particular purposes, or
+ * non-infringement, other than those contained in the Licensee's license and
+ * contract documents. The Owner shall not be liable for any damages suffered by
+ * the Licensee as a result of using, modifying or distributing this software or
+ * its derivatives.
+ *
+ * Irrespective of the conditions above, permission is granted to the students and
+ * staff of the Front Range Community College, Colorado, to use read and use this
+ * class, but not to make amendments or to distributed this class to other parties.
+ *
+ * Copyright 2000-2019 Dr. Bruce K. Haddon
+ */
+package software.haddon.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * An index over a list of options, to find quickly those whose text (as given by
+ * toString, ignoring case) holds a given query, however many options there are.
+ * <p>
+ * Every piece of the text of each option of up to three characters (n-grams, for n
+ * from one to three) is indexed: for each piece, the positions of the options
+ * holding it are listed, in order. A query of up to three characters is answered
+ * by its list alone; a longer query by looking through the shortest of the lists
+ * of its three-character pieces (which holds every option holding the query),
+ * keeping only the options that do hold the query. As a query grows by typing, the
+ * options holding the longer query can also be found from those holding the
+ * shorter, if they are fewer. </p>
+ * <p>
+ * The building of the index looks once at every option, and so may take a while
+ * for a great many options; it can be done on any thread. The options are copied
+ * as the index is built. Once built, the index is not changed, and may be used by
+ * any number of threads. </p>
+ *
+ * @param <T>			the type of the options
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		8.1, 2026-10-18
+ */
+public class OptionIndex<T>
+{
+/**
+ * The longest piece of text indexed.
+ */
+private static final int GRAM = 3;
+
+/**
+ * The text of each option, in lower case.
+ */
+private final String[] keys;
+
+/**
+ * The options.
+ */
+private final List<T> options;
+
+/**
+ * For each piece of text, the positions (in order) of the options holding it.
+ */
+private final Map<String, int[]> postings;
+
+/**
+ * Constructor: build the index.
+ *
+ * @param options		the options, in the order in which they are to be listed
+ */
+public OptionIndex(Collection<T> options)
+{
+	this.options = new ArrayList<>(options);
+	keys = new String[options.size()];
+	Map<String, Posting> lists = new HashMap<>();
+	int position = 0;
+	for( T option : this.options )
+	{
+		String key = key(String.valueOf(option));
+		keys[position] = key;
+		for( int n = 1; n <= GRAM; ++n )
+			for( int start = 0; start + n <= key.length(); ++start )
+			{
+				/* Each option is listed once for each piece, however many times it
+				   holds that piece: as the options are taken in order, it is
+				   already listed if it is the last listed. */
+				Posting list = lists.computeIfAbsent(
+						key.substring(start, start + n), (gram) -> new Posting());
+				if( list.count != 0 && list.positions[list.count - 1] == position )
+					continue;
+				if( list.count == list.positions.length )
+					list.positions = Arrays.copyOf(list.positions, 2 * list.count);
+				list.positions[list.count++] = position;
+			}
+		++position;
+	}
+	postings = new HashMap<>(2 * lists.size());
+	for( Map.Entry<String, Posting> entry : lists.entrySet() )
+		postings.put(entry.getKey(), Arrays.copyOf(entry.getValue().positions,
+				entry.getValue().count));
+}
+
+/**
+ * Find the options whose text holds the query (ignoring case).
+ *
+ * @param query			the query
+ * @return				the positions of the options, in order, or null for all the
+ *						options (if the query is empty)
+ */
+public int[] search(String query)
+{
+	return search(query, null);
+}
+
+/**
+ * Find the options whose text holds the query (ignoring case), knowing that they
+ * are all among the given options (those found for a shorter query, held by this
+ * query).
+ *
+ * @param query			the query
+ * @param within		the positions of options, in order, among which are all
+ *						those holding the query, or null if not known
+ * @return				the positions of the options, in order, or null for all the
+ *						options (if the query is empty)
+ */
+public int[] search(String query, int[] within)
+{
+	String key = key(query);
+	if( key.isEmpty() ) return null;
+	if( key.length() <= GRAM )
+	{
+		int[] list = postings.get(key);
+		return list == null ? new int[0] : list.clone();
+	}
+
+	/* The shortest list that must hold all the options holding the query. */
+	int[] candidates = within;
+	for( int start = 0; start + GRAM <= key.length(); ++start )
+	{
+		int[] list = postings.get(key.substring(start, start + GRAM));
+		if( list == null ) return new int[0];
+		if( candidates == null || list.length < candidates.length )
+			candidates = list;
+	}
+	int[] found = new int[candidates.length];
+	int count = 0;
+	for( int position : candidates )
+		if( keys[position].contains(key) ) found[count++] = position;
+	return Arrays.copyOf(found, count);
+}
+
+/**
+ * The options at the given positions, as a list (not copied, and not to be
+ * changed).
+ *
+ * @param positions		the positions of options, or null for all the options
+ * @return				the options
+ */
+public List<T> select(int[] positions)
+{
+	if( positions == null ) return options;
+	return new Selection<>(options, positions);
+}
+
+/**
+ * @return				the number of options
+ */
+public int size()
+{
+	return keys.length;
+}
+
+/**
+ * The text by which an option (or a query) is indexed.
+ *
+ * @param text			the text
+ * @return				the text in lower case
+ */
+private static String key(String text)
+{
+	return text.toLowerCase(Locale.ROOT);
+}
+
+/**
+ * The positions of the options holding a piece of text, as they are listed while
+ * the index is built.
+ */
+private static final class Posting
+{
+/**
+ * Count of the positions listed.
+ */
+private int count;
+
+/**
+ * The positions listed (and room for more).
+ */
+private int[] positions = new int[4];
+}
+
+/**
+ * The options at the given positions, as a list.
+ *
+ * @param <T>			the type of the options
+ */
+private static final class Selection<T> extends AbstractList<T>
+		implements RandomAccess
+{
+/**
+ * The options.
+ */
+private final List<T> options;
+
+/**
+ * The positions of the options selected.
+ */
+private final int[] positions;
+
+/**
+ * Constructor.
+ *
+ * @param options		the options
+ * @param positions		the positions of the options selected
+ */
+private Selection(List<T> options, int[] positions)
+{
+	this.options = options;
+	this.positions = positions;
+}
+
+@Override
+public T get(int index)
+{
+	return options.get(positions[index]);
+}
+
+@Override
+public int size()
+{
+	return positions.length;
+}
+}
+}
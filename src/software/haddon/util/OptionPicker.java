@@ -0,0 +1,277 @@
+/*-
+ * This software is the work of Dr. Bruce K. Haddon (hereafter, "the Owner"), and
+ * all rights and intellectual property remain the property of that person.
+ *
+ * Rights to view or use this software as source code, or for execution, are only
+ * granted via one or more licences at the discretion the Owner. In any event, the
+ * grant to the "Licensee" shall be for a non-exclusive, non-transferable license
+ * to view or use this software version (hereafter, "the Software") according to
+ * the terms of the licence and contract executed between the Licensee and the
+ * Owner. Licensee agrees that the copyright notice and this statement will appear
+ * on all copies of the Software, packaging, and documentation or portions thereof
+ * made under the terms of the license and contract.
+ *
+ * Please refer to the your license and contract for further important copyright
+ * and licensing information. If you are reading this, and you do not have a
+ * signed, current license or confidentiality agreement executed with the Owner,
+ * it is because someone has violated the terms of an agreement, an act to which
+ * you may be held to be a party.
+ *
+ * The Owner makes no representations or warranties about the suitability of the
+ * Software, either express or implied, including but not limited to the implied
+ * warranties of merchantability, fitness for particular purposes, or
+ * non-infringement, other than those contained in the Licensee's license and
+ * contract documents. The Owner shall not be liable for any damages suffered by
+ * the Licensee as a result of using, modifying or distributing this software or
+ * its derivatives.
+ *
+ * Irrespective of the conditions above, permission is granted to the students and
+ * staff of the Front Range Community College, Colorado, to use read and use this
+ * class, but not to make amendments or to distributed this class to other parties.
+ *
+ * Copyright 2000-2019 Dr. Bruce K. Haddon
+ */
+package software.haddon.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+/**
+ * A control for choosing one of a great many options: a field into which the user
+ * types some of the text of the option wanted, above a list of the options whose
+ * text (as given by toString, ignoring case) holds what has been typed. The list
+ * is changed as each character is typed. The up and down keys move the selection
+ * in the list while typing.
+ * <p>
+ * The list is a ListView (which creates cells only for the options that can be
+ * seen, however many it holds), shown over the options as given if they are a
+ * List (otherwise, once they are indexed), and, once filtered, over the positions
+ * of the options found, without copying the options. The options are searched by
+ * an OptionIndex, which is built on another thread, so that the control is shown
+ * at once however many options there are; what is typed before the index is built
+ * is used once it is. As a query grows, only the options found for the shorter
+ * query are searched again (if they are fewer than the index would search). If the
+ * index cannot be built, the options are listed but cannot be searched, and the
+ * reason is shown. </p>
+ * <p>
+ * The control is to be made and used on the JavaFX Application thread. The options
+ * are not to be changed while it is in use. </p>
+ *
+ * @param <T>			the type of the options
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		8.1, 2026-10-18
+ */
+public class OptionPicker<T> extends VBox
+{
+/**
+ * The space between the parts of the control.
+ */
+private static final double GAP = 6.0;
+
+/**
+ * The field into which the query is typed.
+ */
+private final TextField filter = new TextField();
+
+/**
+ * The positions of the options listed, or null if all are listed.
+ */
+private int[] found;
+
+/**
+ * The index of the options, or null until built.
+ */
+private OptionIndex<T> index;
+
+/**
+ * The list of the options found.
+ */
+private final ListView<T> list = new ListView<>();
+
+/**
+ * The query for which the options listed were found.
+ */
+private String query = "";
+
+/**
+ * The number of options.
+ */
+private final int size;
+
+/**
+ * Showing how many options are listed.
+ */
+private final Label status = new Label();
+
+/**
+ * Constructor: a control listing the options, in order, the first selected. The
+ * index of the options is started on another thread.
+ *
+ * @param options		the options (at least one)
+ */
+@SuppressWarnings("unchecked")
+public OptionPicker(Collection<T> options)
+{
+	super(GAP);
+	size = options.size();
+	if( options instanceof List )
+		show((List<T>) options, null, -1);
+	filter.setPromptText("Type to search");
+	filter.textProperty().addListener((observable, before, text) -> search(text));
+	filter.addEventFilter(KeyEvent.KEY_PRESSED, this::move);
+	VBox.setVgrow(list, Priority.ALWAYS);
+	getChildren().addAll(filter, list, status);
+	status.setText("Indexing " + size + " options…");
+
+	CompletableFuture.supplyAsync(() -> new OptionIndex<>(options))
+			.whenComplete((built, ex) -> Platform.runLater(() ->
+			{
+				if( ex == null )
+					indexed(built);
+				else
+					notIndexed(options, ex.getCause() != null ? ex.getCause() : ex);
+			}));
+}
+
+/**
+ * @return				the field into which the query is typed (to be given the
+ *						focus when the control is shown)
+ */
+public TextField getFilter()
+{
+	return filter;
+}
+
+/**
+ * @return				the option selected, or null if none (as when no option
+ *						holds the query)
+ */
+public T getSelected()
+{
+	return list.getSelectionModel().getSelectedItem();
+}
+
+/**
+ * @return				true once the options have been indexed
+ */
+public boolean isIndexed()
+{
+	return index != null;
+}
+
+/**
+ * Take the index, once built, and list the options found for what has been typed
+ * so far.
+ *
+ * @param built			the index
+ */
+private void indexed(OptionIndex<T> built)
+{
+	int selected = list.getSelectionModel().getSelectedIndex();
+	index = built;
+	query = "";
+	show(index.select(null), null, selected);
+	search(filter.getText());
+}
+
+/**
+ * Move the selection in the list by the up and down keys, while typing.
+ *
+ * @param event			the key pressed
+ */
+private void move(KeyEvent event)
+{
+	int step;
+	switch( event.getCode() )
+	{
+	case UP:
+		step = -1;
+		break;
+	case DOWN:
+		step = +1;
+		break;
+	default:
+		return;
+	}
+	int count = list.getItems().size();
+	if( count == 0 ) return;
+	int next = Math.floorMod(list.getSelectionModel().getSelectedIndex() + step,
+			count);
+	list.getSelectionModel().select(next);
+	list.scrollTo(next);
+	event.consume();
+}
+
+/**
+ * The index could not be built: list all the options (if they are not already),
+ * and show that they cannot be searched, and why.
+ *
+ * @param options		the options
+ * @param cause			what prevented the index from being built
+ */
+private void notIndexed(Collection<T> options, Throwable cause)
+{
+	if( !(options instanceof List) )
+		show(new ArrayList<>(options), null, -1);
+	filter.setDisable(true);
+	status.setText(size + " options (cannot be searched: " + cause + ")");
+}
+
+/**
+ * List the options found for a query, keeping the option selected if it is found
+ * again (otherwise, selecting the first found). Until the index is built, nothing
+ * is done (the query is searched for once it is).
+ *
+ * @param text			the query
+ */
+private void search(String text)
+{
+	if( index == null ) return;
+	int[] within = !query.isEmpty() && text.toLowerCase(Locale.ROOT).contains(
+			query.toLowerCase(Locale.ROOT)) ? found : null;
+	int[] positions = index.search(text, within);
+
+	/* The position among all the options of the option selected. */
+	int selected = list.getSelectionModel().getSelectedIndex();
+	if( selected >= 0 && found != null ) selected = found[selected];
+	query = text;
+	show(index.select(positions), positions, selected);
+}
+
+/**
+ * Show a list of options, and select one.
+ *
+ * @param items			the options to show
+ * @param positions		the positions of those options among all the options, or
+ *						null if they are all the options
+ * @param selected		the position among all the options of the option to
+ *						select, if it is listed (otherwise the first is selected)
+ */
+private void show(List<T> items, int[] positions, int selected)
+{
+	found = positions;
+	list.setItems(FXCollections.observableList(items));
+	int at = selected < 0 ? 0 : positions == null ? selected :
+			Math.max(0, Arrays.binarySearch(positions, selected));
+	if( !items.isEmpty() )
+	{
+		list.getSelectionModel().select(at);
+		list.scrollTo(at);
+	}
+	status.setText(positions == null ? size + " options" :
+			positions.length + " of " + size + " options");
+}
+}
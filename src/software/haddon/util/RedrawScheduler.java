@@ -0,0 +1,217 @@
+/*-
+ * This software is the work of Dr. Bruce K. Haddon (hereafter, "the Owner"), and
+ * all rights and intellectual property remain the property of that person.
+ *
+ * Rights to view or use this software as source code, or for execution, are only
+ * granted via one or more licences at the discretion the Owner. In any event, the
+ * grant to the "Licensee" shall be for a non-exclusive, non-transferable license
+ * to view or use this software version (hereafter, "the Software") according to
+ * the terms of the licence and contract executed between the Licensee and the
+ * Owner. Licensee agrees that the copyright notice and this statement will appear
+ * on all copies of the Software, packaging, and documentation or portions thereof
+ * made under the terms of the license and contract.
+ *
+ * Please refer to the your license and contract for further important copyright
+ * and licensing information. If you are reading this, and you do not have a
+ * signed, current license or confidentiality agreement executed with the Owner,
+ * it is because someone has violated the terms of an agreement, an act to which
+ * you may be held to be a party.
+ *
+ * The Owner makes no representations or warranties about the suitability of the
+ * Software, either express or implied, including but not limited to the implied
+ * warranties of merchantability, fitness for particular purposes, or
+ * non-infringement, other than those contained in the Licensee's license and
+ * contract documents. The Owner shall not be liable for any damages suffered by
+ * the Licensee as a result of using, modifying or distributing this software or
+ * its derivatives.
+ *
+ * Irrespective of the conditions above, permission is granted to the students and
+ * staff of the Front Range Community College, Colorado, to use read and use this
+ * class, but not to make amendments or to distributed this class to other parties.
+ *
+ * Copyright 2000-2019 Dr. Bruce K. Haddon
+ */
+package software.haddon.util;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+
+/**
+ * Coalesces requests to redraw a scene so that the redrawing is done at most once
+ * for each JavaFX pulse. A request marks the scene as needing to be redrawn; the
+ * redrawing itself is done by an {@code AnimationTimer} at the next pulse, so that
+ * any number of requests made before that pulse (for example, changes in both the
+ * width and the height of a window being resized) cause only one redrawing.
+ * <p>
+ * A count is kept of the requests, of the redrawings actually done, and of the
+ * requests that were collapsed into a redrawing already pending. </p>
+ * <p>
+ * All the methods of this class are to be called on the JavaFX Application thread,
+ * as are listeners to the properties of a scene. </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		8.1, 2026-10-18
+ */
+public class RedrawScheduler
+{
+/**
+ * Count of requests that were collapsed into a redrawing already pending.
+ */
+private long collapsed;
+
+/**
+ * True if a redrawing has been requested, but not yet done.
+ */
+private boolean dirty;
+
+/**
+ * A listener that requests a redrawing whenever the observed value changes.
+ */
+private final InvalidationListener listener;
+
+/**
+ * The action that redraws the scene.
+ */
+private final Runnable redraw;
+
+/**
+ * Count of redrawings done.
+ */
+private long redraws;
+
+/**
+ * Count of all requests made.
+ */
+private long requests;
+
+/**
+ * The timer that performs the redrawing on the next pulse.
+ */
+private final AnimationTimer timer;
+
+/**
+ * Constructor.
+ *
+ * @param redraw		the action that redraws the scene
+ */
+@SuppressWarnings("Convert2Lambda")
+public RedrawScheduler(Runnable redraw)
+{
+	if( redraw == null )
+		throw new IllegalArgumentException("Null redraw action not valid here");
+	this.redraw = redraw;
+
+	/* The timer runs only while a redrawing is pending, and is stopped again as
+	   soon as that redrawing has been done. */
+	timer = new AnimationTimer()
+	{
+		@Override
+		public void handle(long now)
+		{
+			stop();
+			redrawNow();
+		}
+	};
+
+	listener = new InvalidationListener()
+	{
+		@Override
+		public void invalidated(Observable o)
+		{
+			request();
+		}
+	};
+}
+
+/**
+ * Cancel any pending redrawing. Requests made after this will be honored.
+ */
+public void cancel()
+{
+	timer.stop();
+	dirty = false;
+}
+
+/**
+ * @return				count of requests collapsed into a pending redrawing
+ */
+public long getCollapsed()
+{
+	return collapsed;
+}
+
+/**
+ * A listener that may be added to any observable value (such as the width and
+ * height properties of a scene), to request a redrawing when that value changes.
+ *
+ * @return				the listener
+ */
+public InvalidationListener getListener()
+{
+	return listener;
+}
+
+/**
+ * @return				count of redrawings done
+ */
+public long getRedraws()
+{
+	return redraws;
+}
+
+/**
+ * @return				count of all requests made
+ */
+public long getRequests()
+{
+	return requests;
+}
+
+/**
+ * @return				true if a redrawing is pending
+ */
+public boolean isDirty()
+{
+	return dirty;
+}
+
+/**
+ * Perform any pending redrawing immediately, rather than at the next pulse. If
+ * there is no redrawing pending, nothing is done.
+ */
+public void flush()
+{
+	if( !dirty ) return;
+	timer.stop();
+	redrawNow();
+}
+
+/**
+ * Request that the scene be redrawn. If a redrawing is already pending, this
+ * request is collapsed into that one, otherwise a redrawing is arranged for the
+ * next pulse.
+ */
+public void request()
+{
+	++requests;
+	if( dirty )
+	{
+		++collapsed;
+		return;
+	}
+	dirty = true;
+	timer.start();
+}
+
+/**
+ * Do the redrawing. The dirty mark is removed first, so that the redrawing may
+ * itself request another redrawing (on the next pulse).
+ */
+private void redrawNow()
+{
+	dirty = false;
+	++redraws;
+	redraw.run();
+}
+}
@@ -0,0 +1,424 @@
+/*-
+ * This software is the work of Dr. Bruce K. Haddon (hereafter, "the Owner"), and
+ * all rights and intellectual property remain the property of that person.
+ *
+ * Rights to view or use this software as source code, or for execution, are only
+ * granted via one or more licences at the discretion the Owner. In any event, the
+ * grant to the "Licensee" shall be for a non-exclusive, non-transferable license
+ * to view or use this software version (hereafter, "the Software") according to
+ * the terms of the licence and contract executed between the Licensee and the
+ * Owner. Licensee agrees that the copyright notice and this statement will appear
+ * on all copies of the Software, packaging, and documentation or portions thereof
+ * made under the terms of the license and contract.
+ *
+ * Please refer to the your license and contract for further important copyright
+ * and licensing information. If you are reading this, and you do not have a
+ * signed, current license or confidentiality agreement executed with the Owner,
+ * it is because someone has violated the terms of an agreement, an act to which
+ * you may be held to be a party.
+ *
+ * The Owner makes no representations or warranties about the suitability of the
+ * Software, either express or implied, including but not limited to the implied
+ * warranties of merchantability, fitness for particular purposes, or
+ * non-infringement, other than those contained in the Licensee's license and
+ * contract documents. The Owner shall not be liable for any damages suffered by
+ * the Licensee as a result of using, modifying or distributing this software or
+ * its derivatives.
+ *
+ * Irrespective of the conditions above, permission is granted to the students and
+ * staff of the Front Range Community College, Colorado, to use read and use this
+ * class, but not to make amendments or to distributed this class to other parties.
+ *
+ * Copyright 2000-2019 Dr. Bruce K. Haddon
+ */
+package software.haddon.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.ListView;
+
+/**
+ * Accepts lines of text, from any number of threads, to be shown in a scrolling
+ * window, without waiting for the lines to be shown. Each line is placed in a ring
+ * buffer, and the buffer is drained on the JavaFX Application thread once a pulse,
+ * however many lines have been added, into a ListView (which creates cells only
+ * for the lines that can be seen, however many lines it holds). Only the most
+ * recent lines, up to a cap, are kept in the view.
+ * <p>
+ * The ring buffer holds as many lines as the cap. If lines are added faster than
+ * they can be shown, and the buffer fills, what is done depends on the overflow
+ * policy: the oldest line in the buffer is discarded (the default, as it would
+ * soon be pushed out of the view by the cap anyway), the new line is discarded,
+ * or the thread adding the line waits for room. A count is kept of the lines
+ * discarded. A thread may also wait (by flush) until the lines it has added have
+ * been shown. </p>
+ * <p>
+ * The view follows the newest line, unless a line has been selected (so that the
+ * user may stop to read). Once the window is closed, no more lines may be added.
+ * </p>
+ *
+ * @author		Dr. Bruce K. Haddon, Instructor
+ * @version		8.1, 2026-10-18
+ */
+public class ScrollAppender implements Consumer<String>
+{
+/**
+ * The number of lines kept in the view, if no other cap is given.
+ */
+public static final int DEFAULT_LINE_CAP = 10_000;
+
+/**
+ * Signalled when lines are taken from the buffer, or the window is closed.
+ */
+private final Condition changed;
+
+/**
+ * True once the window has been closed.
+ */
+private boolean closed;
+
+/**
+ * Count of the lines taken from the buffer (shown or discarded).
+ */
+private long consumed;
+
+/**
+ * Count of the lines discarded, as the buffer was full.
+ */
+private long discarded;
+
+/**
+ * The index in the ring of the oldest line not yet shown.
+ */
+private int head;
+
+/**
+ * The most lines kept in the view.
+ */
+private final int lineCap;
+
+/**
+ * Lock guarding the buffer, and the counts.
+ */
+private final ReentrantLock lock = new ReentrantLock();
+
+/**
+ * What is done when a line is added to a full buffer.
+ */
+private final Overflow overflow;
+
+/**
+ * Count of the lines in the buffer, not yet shown.
+ */
+private int pending;
+
+/**
+ * The lines not yet shown, from head onwards (wrapping around).
+ */
+private final String[] ring;
+
+/**
+ * True if the timer has been (or is about to be) started, to drain the buffer.
+ */
+private boolean scheduled;
+
+/**
+ * The timer that drains the buffer at each pulse, while there are lines to show.
+ */
+private final AnimationTimer timer;
+
+/**
+ * The view showing the lines, or null until made.
+ */
+private ListView<String> view;
+
+/**
+ * Count of the lines added (including those discarded).
+ */
+private long written;
+
+/**
+ * Constructor.
+ *
+ * @param lineCap		the most lines kept in the view (and in the buffer)
+ * @param overflow		what is done when a line is added to a full buffer
+ */
+@SuppressWarnings("Convert2Lambda")
+ScrollAppender(int lineCap, Overflow overflow)
+{
+	if( lineCap <= 0 )
+		throw new IllegalArgumentException("Line cap must be positive");
+	if( overflow == null )
+		throw new IllegalArgumentException("Null overflow not valid here");
+	this.lineCap = lineCap;
+	this.overflow = overflow;
+	ring = new String[lineCap];
+	changed = lock.newCondition();
+
+	/* The timer runs only while there are lines to show, and is stopped at the
+	   first pulse that finds none. */
+	timer = new AnimationTimer()
+	{
+		@Override
+		public void handle(long now)
+		{
+			if( drain() == 0 ) stop();
+		}
+	};
+}
+
+/**
+ * Add a line, to be shown at the next pulse. There is no wait for the line to be
+ * shown (nor, unless the overflow policy is to wait, for room in the buffer).
+ *
+ * @param line			the line
+ * @throws IllegalStateException if the window has been closed
+ */
+@Override
+public void accept(String line)
+{
+	boolean start;
+	lock.lock();
+	try
+	{
+		if( closed )
+			throw new IllegalStateException("scrollDisplay not active or incorrect");
+		if( pending == ring.length )
+			switch( overflow )
+			{
+			case DISCARD_OLDEST:
+				ring[head] = null;
+				head = (head + 1) % ring.length;
+				--pending;
+				++consumed;
+				++discarded;
+				break;
+
+			case DISCARD_NEWEST:
+				++written;
+				++consumed;
+				++discarded;
+				return;
+
+			default:
+				/* Wait for room (unless on the Application thread, which would then
+				   never drain the buffer: drain it now instead). */
+				while( pending == ring.length && !closed )
+					if( Platform.isFxApplicationThread() )
+					{
+						lock.unlock();
+						try
+						{
+							drain();
+						} finally
+						{
+							lock.lock();
+						}
+					} else
+						changed.awaitUninterruptibly();
+				if( closed )
+					throw new IllegalStateException(
+							"scrollDisplay not active or incorrect");
+				break;
+			}
+		ring[(head + pending) % ring.length] = line;
+		++pending;
+		++written;
+		start = !scheduled;
+		scheduled = true;
+	} finally
+	{
+		lock.unlock();
+	}
+
+	/* Only the first line after the buffer has been drained starts the timer. */
+	if( start ) Platform.runLater(timer::start);
+}
+
+/**
+ * Wait until all the lines added (by any thread) before this call have been shown
+ * (or discarded), or the window is closed. On the Application thread, the lines
+ * are shown at once instead.
+ */
+public void flush()
+{
+	if( Platform.isFxApplicationThread() )
+	{
+		drain();
+		return;
+	}
+	lock.lock();
+	try
+	{
+		long target = written;
+		while( consumed < target && !closed ) changed.awaitUninterruptibly();
+	} finally
+	{
+		lock.unlock();
+	}
+}
+
+/**
+ * @return				count of the lines discarded, as the buffer was full
+ */
+public long getDiscarded()
+{
+	lock.lock();
+	try
+	{
+		return discarded;
+	} finally
+	{
+		lock.unlock();
+	}
+}
+
+/**
+ * @return				the most lines kept in the view
+ */
+public int getLineCap()
+{
+	return lineCap;
+}
+
+/**
+ * @return				what is done when a line is added to a full buffer
+ */
+public Overflow getOverflow()
+{
+	return overflow;
+}
+
+/**
+ * @return				count of the lines added (including those discarded)
+ */
+public long getWritten()
+{
+	lock.lock();
+	try
+	{
+		return written;
+	} finally
+	{
+		lock.unlock();
+	}
+}
+
+/**
+ * @return				true if the window has been closed (so that no more lines
+ *						may be added)
+ */
+public boolean isClosed()
+{
+	lock.lock();
+	try
+	{
+		return closed;
+	} finally
+	{
+		lock.unlock();
+	}
+}
+
+/**
+ * The window has been closed: no more lines are shown, or may be added, and any
+ * thread waiting (for room, or by flush) no longer waits. To be called on the
+ * Application thread.
+ */
+void close()
+{
+	timer.stop();
+	lock.lock();
+	try
+	{
+		closed = true;
+		changed.signalAll();
+	} finally
+	{
+		lock.unlock();
+	}
+}
+
+/**
+ * Make the view in which the lines are shown. To be called (once) on the
+ * Application thread.
+ *
+ * @return				the view
+ */
+ListView<String> createView()
+{
+	view = new ListView<>(FXCollections.observableArrayList());
+	view.setFocusTraversable(false);
+	return view;
+}
+
+/**
+ * Take all the lines from the buffer, and add them to the view (at once, so that
+ * the view is laid out once for them all), keeping only the most recent lines up
+ * to the cap. To be called on the Application thread.
+ *
+ * @return				count of the lines taken
+ */
+private int drain()
+{
+	String[] lines;
+	lock.lock();
+	try
+	{
+		if( pending == 0 )
+		{
+			scheduled = false;
+			return 0;
+		}
+		lines = new String[pending];
+		int first = Math.min(pending, ring.length - head);
+		System.arraycopy(ring, head, lines, 0, first);
+		System.arraycopy(ring, 0, lines, first, pending - first);
+		Arrays.fill(ring, head, head + first, null);
+		Arrays.fill(ring, 0, pending - first, null);
+		head = 0;
+		consumed += pending;
+		pending = 0;
+		changed.signalAll();
+	} finally
+	{
+		lock.unlock();
+	}
+	if( view == null ) return lines.length;
+
+	ObservableList<String> items = view.getItems();
+	int excess = items.size() + lines.length - lineCap;
+	List<String> added = Arrays.asList(lines);
+	if( excess >= items.size() )
+	{
+		/* Only the newest of the lines taken are kept. */
+		items.setAll(added.subList(excess - items.size(), lines.length));
+	} else
+	{
+		if( excess > 0 ) items.remove(0, excess);
+		items.addAll(added);
+	}
+	if( view.getSelectionModel().isEmpty() ) view.scrollTo(items.size() - 1);
+	return lines.length;
+}
+
+/**
+ * What is done when a line is added to a full buffer.
+ */
+public enum Overflow
+{
+	/** The oldest line in the buffer is discarded. */
+	DISCARD_OLDEST,
+	/** The line being added is discarded. */
+	DISCARD_NEWEST,
+	/** The thread adding the line waits until there is room. */
+	BLOCK
+}
+}